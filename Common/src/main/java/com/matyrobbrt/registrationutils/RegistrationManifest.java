@@ -0,0 +1,235 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils;
+
+import com.matyrobbrt.registrationutils.specialised.BlockRegistrationProvider;
+import com.matyrobbrt.registrationutils.specialised.ItemRegistrationProvider;
+import com.matyrobbrt.registrationutils.util.$RegistrationNames;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registers the objects of {@link com.matyrobbrt.registrationutils.annotation.Register}-annotated factory methods
+ * from a manifest written by the Gradle plugin, without initialising the classes declaring them. <br>
+ * Each line of the manifest is an entry, in the format {@code <registry> <mod ID> <name> <factory class> <factory method>}.
+ * The class of a factory is only loaded when the object is first created.
+ * <p>
+ * The manifest and the generated holders share their providers, and objects are only registered once,
+ * so a holder initialised after the manifest was loaded gets the objects the manifest registered.
+ * Registering a name that was already registered by another factory, or directly with the provider, fails.
+ */
+public final class RegistrationManifest {
+    /**
+     * The name of the manifest file, which is located in the (relocated) package of the library.
+     */
+    public static final String FILE_NAME = $RegistrationNames.REGISTRATION_MANIFEST;
+
+    private static final Map<ProviderKey, RegistrationProvider<?>> PROVIDERS = new ConcurrentHashMap<>();
+    private static final Map<RegistrationProvider<?>, Owners> OWNERS = new ConcurrentHashMap<>();
+    private static volatile boolean loaded;
+
+    private RegistrationManifest() {
+    }
+
+    /**
+     * Registers the objects listed in the manifest, if present. Subsequent calls do nothing.
+     */
+    public static synchronized void load() {
+        if (loaded) return;
+        loaded = true;
+
+        final InputStream stream = RegistrationManifest.class.getResourceAsStream(FILE_NAME);
+        if (stream == null) return;
+        final ClassLoader loader = RegistrationManifest.class.getClassLoader();
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                final String[] parts = line.split(" ");
+                if (parts.length != 5) {
+                    throw new IllegalStateException("Invalid registration manifest entry: " + line);
+                }
+                final RegistrationProvider<Object> provider = provider(ResourceKey.createRegistryKey(new ResourceLocation(parts[0])), parts[1]);
+                register(provider, parts[2], parts[3], new LazyFactory(loader, parts[3], parts[4]));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read the registration manifest", e);
+        }
+    }
+
+    /**
+     * Gets the provider shared by the manifest and the generated holders for a registry and a mod. <br>
+     * The item and block registries use the specialised providers.
+     *
+     * @param registry the key of the registry
+     * @param modId    the mod ID
+     * @param <T>      the type of the registry
+     * @return the provider
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RegistrationProvider<T> provider(ResourceKey<? extends Registry<T>> registry, String modId) {
+        return (RegistrationProvider<T>) PROVIDERS.computeIfAbsent(new ProviderKey(registry, modId), key -> {
+            if (registry.equals(Registries.ITEM)) {
+                return ItemRegistrationProvider.get(modId);
+            } else if (registry.equals(Registries.BLOCK)) {
+                return BlockRegistrationProvider.get(modId);
+            }
+            return RegistrationProvider.get(registry, modId);
+        });
+    }
+
+    /**
+     * {@return the shared item provider of a mod}
+     *
+     * @param modId the mod ID
+     * @see #provider(ResourceKey, String)
+     */
+    public static ItemRegistrationProvider items(String modId) {
+        return (ItemRegistrationProvider) provider(Registries.ITEM, modId);
+    }
+
+    /**
+     * {@return the shared block provider of a mod}
+     *
+     * @param modId the mod ID
+     * @see #provider(ResourceKey, String)
+     */
+    public static BlockRegistrationProvider blocks(String modId) {
+        return (BlockRegistrationProvider) provider(Registries.BLOCK, modId);
+    }
+
+    /**
+     * Registers an object, unless the same class already registered an object with that name through this method.
+     *
+     * @param provider the provider to register the object with
+     * @param name     the name of the object
+     * @param owner    the binary name of the class declaring the factory of the object
+     * @param factory  a supplier of the object to register
+     * @param <T>      the type of the registry
+     * @param <I>      the type of the object
+     * @param <O>      the type of the wrapper of the object, which is the type returned by the provider
+     * @return the wrapper of the object
+     * @throws IllegalStateException if the name was already registered by another class, or directly with the provider
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, I extends T, O extends RegistryObject<T, I>> O register(RegistrationProvider<T> provider, String name, String owner, Supplier<? extends I> factory) {
+        synchronized (provider) {
+            final Owners owners = OWNERS.computeIfAbsent(provider, p -> new Owners());
+            final Registration existing = owners.byName.get(name);
+            if (existing != null) {
+                if (existing.owner().equals(owner)) {
+                    return (O) existing.object();
+                }
+                throw duplicate(existing.object().getId(), owner, "by " + existing.owner());
+            }
+
+            final ResourceLocation id = new ResourceLocation(provider.getModId(), name);
+            if (owners.directlyRegistered(provider).contains(id)) {
+                throw duplicate(id, owner, "directly with its provider");
+            }
+            final O object = (O) provider.register(name, factory);
+            owners.byName.put(name, new Registration(owner, object));
+            owners.seen++;
+            return object;
+        }
+    }
+
+    private static IllegalStateException duplicate(ResourceLocation id, String owner, String existing) {
+        return new IllegalStateException("Duplicate registration of " + id + " by " + owner + ", it was already registered " + existing);
+    }
+
+    private record ProviderKey(ResourceKey<?> registry, String modId) {
+    }
+
+    private record Registration(String owner, RegistryObject<?, ?> object) {
+    }
+
+    /**
+     * The objects registered through {@link #register(RegistrationProvider, String, String, Supplier)} with a provider.
+     * Only accessed while holding the lock of the provider.
+     */
+    private static final class Owners {
+        private final Map<String, Registration> byName = new HashMap<>();
+        private final Set<ResourceLocation> direct = new HashSet<>();
+        private int seen;
+
+        /**
+         * {@return the IDs of the objects registered directly with the provider}
+         * The entries of the provider are only scanned when it has more entries than were seen through the manifest,
+         * so loading the manifest stays linear unless objects are also registered directly.
+         */
+        Set<ResourceLocation> directlyRegistered(RegistrationProvider<?> provider) {
+            final Collection<? extends RegistryObject<?, ?>> entries = provider.getEntries();
+            if (entries.size() != seen) {
+                for (final RegistryObject<?, ?> entry : entries) {
+                    final ResourceLocation id = entry.getId();
+                    if (!id.getNamespace().equals(provider.getModId()) || !byName.containsKey(id.getPath())) {
+                        direct.add(id);
+                    }
+                }
+                seen = entries.size();
+            }
+            return direct;
+        }
+    }
+
+    private record LazyFactory(ClassLoader loader, String owner, String method) implements Supplier<Object> {
+        @Override
+        public Object get() {
+            try {
+                final Method factory = Class.forName(owner, true, loader).getDeclaredMethod(method);
+                factory.setAccessible(true);
+                return factory.invoke(null);
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException("Factory " + owner + "#" + method + " threw an exception", e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException("Could not invoke factory " + owner + "#" + method, e);
+            }
+        }
+    }
+}
@@ -35,7 +35,12 @@ import net.minecraft.core.Registry;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -108,12 +113,144 @@ public interface RegistrationProvider<T> {
     <I extends T> RegistryObject<T, I> register(String name, Supplier<? extends I> supplier);
 
     /**
-     * Gets all the objects currently registered.
+     * Registers an object whose construction is only needed on the client. <br>
+     * On a dedicated server the {@code placeholder} is registered instead, and the {@code client} supplier is never evaluated,
+     * so the IDs of the registry still line up with clients.
+     *
+     * @param name        the name of the object
+     * @param client      a supplier of the object to register on the client
+     * @param placeholder a supplier of the lightweight object to register on a dedicated server
+     * @param <I>         the type of the object
+     * @return a wrapper containing the lazy registered object. <strong>Calling {@link RegistryObject#get() get} too early
+     * on the wrapper might result in crashes!</strong>
+     */
+    default <I extends T> RegistryObject<T, I> registerClient(String name, Supplier<? extends I> client, Supplier<? extends I> placeholder) {
+        return register(name, Factory.INSTANCE.isDedicatedServer() ? placeholder : client);
+    }
+
+    /**
+     * Registers an object only on the client. On a dedicated server nothing is registered. <br>
+     * <strong>This must only be used for registries that are not synced to clients</strong>, otherwise the client would have entries
+     * unknown to the server. Use {@link #registerClient(String, Supplier, Supplier)} for synced registries.
+     *
+     * @param name     the name of the object
+     * @param supplier a supplier of the object to register
+     * @param <I>      the type of the object
+     * @return a wrapper containing the lazy registered object, or {@code null} on a dedicated server
+     */
+    @Nullable
+    default <I extends T> RegistryObject<T, I> registerClientOnly(String name, Supplier<? extends I> supplier) {
+        return Factory.INSTANCE.isDedicatedServer() ? null : register(name, supplier);
+    }
+
+    /**
+     * Registers an object for each constant of an enum.
+     *
+     * @param variants the type of the variants
+     * @param naming   a function computing the name of the object of a variant
+     * @param factory  a factory for the object of a variant. The factory should not cache the created object.
+     * @param <E>      the type of the variants
+     * @param <I>      the type of the objects
+     * @return a family containing the wrappers of the lazy registered objects, indexed by variant
+     */
+    default <E extends Enum<E>, I extends T> VariantFamily<E, ? extends RegistryObject<T, I>> registerFamily(Class<E> variants, Function<? super E, String> naming, Function<? super E, ? extends I> factory) {
+        return VariantFamily.of(variants, variant -> register(naming.apply(variant), () -> factory.apply(variant)));
+    }
+
+    /**
+     * Registers an object for each combination of the constants of two enums.
+     *
+     * @param rows    the type of the row variants
+     * @param columns the type of the column variants
+     * @param naming  a function computing the name of the object of a combination
+     * @param factory a factory for the object of a combination. The factory should not cache the created object.
+     * @param <R>     the type of the row variants
+     * @param <C>     the type of the column variants
+     * @param <I>     the type of the objects
+     * @return a table containing the wrappers of the lazy registered objects, indexed by combination
+     */
+    default <R extends Enum<R>, C extends Enum<C>, I extends T> VariantTable<R, C, ? extends RegistryObject<T, I>> registerTable(Class<R> rows, Class<C> columns, BiFunction<? super R, ? super C, String> naming, BiFunction<? super R, ? super C, ? extends I> factory) {
+        return VariantTable.of(rows, columns, (row, column) -> register(naming.apply(row, column), () -> factory.apply(row, column)));
+    }
+
+    /**
+     * Gets all the objects currently registered, in registration order. <br>
+     * The order is not deterministic if objects are registered from multiple threads.
      *
      * @return an <strong>immutable</strong> view of all the objects currently registered
      */
     Collection<RegistryObject<T, ? extends T>> getEntries();
 
+    /**
+     * Gets an object registered by this provider. <br>
+     * Once registration is over the entries of the providers of the built-in factories are compacted into a sorted array, making this a binary search.
+     * The default implementation searches the {@link #getEntries() entries} linearly.
+     *
+     * @param id the ID of the object
+     * @return the object, or {@code null} if this provider did not register an object with that ID
+     */
+    @Nullable
+    default RegistryObject<T, ? extends T> getEntry(ResourceLocation id) {
+        for (final RegistryObject<T, ? extends T> entry : getEntries()) {
+            if (entry.getId().equals(id)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets an object registered by this provider.
+     *
+     * @param name the name of the object, in the namespace of the {@link #getModId() mod ID}
+     * @return the object, or {@code null} if this provider did not register an object with that name
+     * @see #getEntry(ResourceLocation)
+     */
+    @Nullable
+    default RegistryObject<T, ? extends T> getEntry(String name) {
+        return getEntry(new ResourceLocation(getModId(), name));
+    }
+
+    /**
+     * Finds the object registered by this provider whose value is the given object. <br>
+     * Values are compared by identity, and only objects that are already bound can be found.
+     * Once registration is over the providers of the built-in factories look values up in an identity index.
+     * The default implementation searches the {@link #getEntries() entries} linearly.
+     *
+     * @param value the value of the object
+     * @return the object, or {@code null} if this provider did not register an object bound to that value
+     */
+    @Nullable
+    default RegistryObject<T, ? extends T> findEntry(T value) {
+        for (final RegistryObject<T, ? extends T> entry : getEntries()) {
+            if (entry.asHolder().isBound() && entry.get() == value) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a listener that will be called with each object registered by this provider, once it is bound. <br>
+     * Objects bound before the listener was added are replayed to it. Each object is delivered exactly once to each listener.
+     * On Fabric objects are bound as soon as they are registered, while on NeoForge they are bound during the {@code RegisterEvent} of the registry. <br>
+     * The listener is invoked on the thread that bound the object, so it may be invoked concurrently if objects are registered from multiple threads.
+     *
+     * @param listener the listener
+     */
+    void addListener(Consumer<? super RegistryObject<T, ? extends T>> listener);
+
+    /**
+     * Adds a listener that will be called with batches of the objects registered by this provider, once they are bound. <br>
+     * A batch is delivered when the registration of the provider ends, containing the objects bound since the previous batch.
+     * On NeoForge this is right after the {@code RegisterEvent} of the registry, while on Fabric this is when the client or the server starts.
+     * Objects bound before the listener was added are replayed to it as a single batch.
+     *
+     * @param listener the listener
+     * @see #addListener(Consumer)
+     */
+    void addBatchListener(Consumer<? super List<RegistryObject<T, ? extends T>>> listener);
+
     /**
      * Gets the registry key stored in this provider.
      *
@@ -176,5 +313,13 @@ public interface RegistrationProvider<T> {
         default <T> RegistrationProvider<T> create(Registry<T> registry, String modId) {
             return create(registry.key(), modId);
         }
+
+        /**
+         * {@return whether the game is running on a dedicated server}
+         * Defaults to {@code false}, so factories unable to tell the side register the client objects.
+         */
+        default boolean isDedicatedServer() {
+            return false;
+        }
     }
 }
\ No newline at end of file
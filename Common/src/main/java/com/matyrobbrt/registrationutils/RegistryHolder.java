@@ -28,6 +28,8 @@
 
 package com.matyrobbrt.registrationutils;
 
+import com.matyrobbrt.registrationutils.util.$InternalRegUtils;
+
 import java.util.ServiceLoader;
 
 /**
@@ -41,8 +43,15 @@ import java.util.ServiceLoader;
 @SuppressWarnings("unused")
 public interface RegistryHolder {
 
+    /**
+     * Loads all holders: the ones discovered through {@link ServiceLoader Service Loaders},
+     * and the ones generated by the registration annotation processor, which are listed in a manifest instead. <br>
+     * The objects listed in the {@link RegistrationManifest registration manifest} are registered first.
+     */
     @SuppressWarnings("ALL") // the `getName` call just loads the class
     static void loadAll() {
+        RegistrationManifest.load();
         ServiceLoader.load(RegistryHolder.class).forEach(clz -> clz.getClass().getName());
+        $InternalRegUtils.loadGeneratedHolders(RegistryHolder.class.getClassLoader());
     }
 }
@@ -29,8 +29,11 @@
 package com.matyrobbrt.registrationutils;
 
 import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
 
 import java.util.function.Supplier;
 
@@ -71,4 +74,29 @@ public interface RegistryObject<R, T extends R> extends Supplier<T> {
      * @return the holder
      */
     Holder<R> asHolder();
-}
\ No newline at end of file
+
+    /**
+     * Gets the raw numeric ID of the object in its registry. <br>
+     * The loader implementations compute the ID once and cache it until registry IDs are
+     * remapped (for instance, when they are synced from a server), making this method cheaper than {@link Registry#getId(Object)}.
+     *
+     * @return the raw ID of the object, or {@code -1} if it is not registered
+     */
+    @SuppressWarnings("unchecked")
+    default int getRawId() {
+        final Registry<R> registry = (Registry<R>) BuiltInRegistries.REGISTRY.get(getResourceKey().registry());
+        return registry == null ? -1 : registry.getId(get());
+    }
+
+    /**
+     * Checks if this object is in the given tag. <br>
+     * If the registry of the object has the {@link com.matyrobbrt.registrationutils.registries.RegistryFeatureType#TAG_BITSETS} feature,
+     * the loader implementations check the tag bitsets instead of the vanilla tag sets.
+     *
+     * @param tag the tag
+     * @return if this object is in the tag
+     */
+    default boolean is(TagKey<R> tag) {
+        return asHolder().is(tag);
+    }
+}
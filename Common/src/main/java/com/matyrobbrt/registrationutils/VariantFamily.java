@@ -0,0 +1,136 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A family of objects, one for each constant of an enum, such as an object per {@link net.minecraft.world.item.DyeColor dye colour}. <br>
+ * The objects are stored in an array indexed by the {@link Enum#ordinal() ordinal} of their variant,
+ * so looking a variant up is a single array access.
+ *
+ * @param <E> the type of the variants
+ * @param <O> the type of the objects
+ * @see RegistrationProvider#registerFamily(Class, Function, Function)
+ * @see VariantTable
+ */
+public final class VariantFamily<E extends Enum<E>, O> {
+    private final Class<E> variantType;
+    private final E[] variants;
+    private final Object[] objects;
+
+    private VariantFamily(Class<E> variantType, E[] variants, Object[] objects) {
+        this.variantType = variantType;
+        this.variants = variants;
+        this.objects = objects;
+    }
+
+    /**
+     * Creates a family, computing the object of each variant in ordinal order.
+     *
+     * @param variantType the type of the variants
+     * @param factory     a factory creating the object of a variant
+     * @param <E>         the type of the variants
+     * @param <O>         the type of the objects
+     * @return the family
+     */
+    public static <E extends Enum<E>, O> VariantFamily<E, O> of(Class<E> variantType, Function<? super E, ? extends O> factory) {
+        final E[] variants = variantType.getEnumConstants();
+        final Object[] objects = new Object[variants.length];
+        for (final E variant : variants) {
+            objects[variant.ordinal()] = Objects.requireNonNull(factory.apply(variant), "factory returned null");
+        }
+        return new VariantFamily<>(variantType, variants, objects);
+    }
+
+    /**
+     * {@return the object of the given variant}
+     *
+     * @param variant the variant
+     */
+    @SuppressWarnings("unchecked")
+    public O get(E variant) {
+        return (O) objects[variant.ordinal()];
+    }
+
+    /**
+     * {@return the type of the variants of this family}
+     */
+    public Class<E> variantType() {
+        return variantType;
+    }
+
+    /**
+     * {@return the amount of objects in this family}
+     */
+    public int size() {
+        return objects.length;
+    }
+
+    /**
+     * {@return an immutable view of the objects of this family, in ordinal order}
+     */
+    @SuppressWarnings("unchecked")
+    public List<O> values() {
+        return (List<O>) (List<?>) Collections.unmodifiableList(Arrays.asList(objects));
+    }
+
+    /**
+     * Invokes the {@code consumer} for each variant and its object, in ordinal order.
+     *
+     * @param consumer the consumer
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super E, ? super O> consumer) {
+        for (int i = 0; i < objects.length; i++) {
+            consumer.accept(variants[i], (O) objects[i]);
+        }
+    }
+
+    /**
+     * Creates a new family with the same variants, whose objects are computed from the objects of this family.
+     *
+     * @param mapper the function computing the new objects
+     * @param <N>    the type of the new objects
+     * @return the new family
+     */
+    @SuppressWarnings("unchecked")
+    public <N> VariantFamily<E, N> map(Function<? super O, ? extends N> mapper) {
+        final Object[] mapped = new Object[objects.length];
+        for (int i = 0; i < objects.length; i++) {
+            mapped[i] = Objects.requireNonNull(mapper.apply((O) objects[i]), "mapper returned null");
+        }
+        return new VariantFamily<>(variantType, variants, mapped);
+    }
+}
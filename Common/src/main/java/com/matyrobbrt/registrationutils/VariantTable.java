@@ -0,0 +1,125 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * A two-dimensional family of objects, one for each combination of the constants of two enums,
+ * such as an object per {@link net.minecraft.world.item.DyeColor dye colour} and shape. <br>
+ * The objects are stored in a single flat array indexed by {@code row.ordinal() * columns + column.ordinal()},
+ * so looking a combination up is a single array access.
+ *
+ * @param <R> the type of the row variants
+ * @param <C> the type of the column variants
+ * @param <O> the type of the objects
+ * @see RegistrationProvider#registerTable(Class, Class, BiFunction, BiFunction)
+ * @see VariantFamily
+ */
+public final class VariantTable<R extends Enum<R>, C extends Enum<C>, O> {
+    private final Class<R> rowType;
+    private final Class<C> columnType;
+    private final int columns;
+    private final Object[] objects;
+
+    private VariantTable(Class<R> rowType, Class<C> columnType, int columns, Object[] objects) {
+        this.rowType = rowType;
+        this.columnType = columnType;
+        this.columns = columns;
+        this.objects = objects;
+    }
+
+    /**
+     * Creates a table, computing the object of each combination in row-major ordinal order.
+     *
+     * @param rowType    the type of the row variants
+     * @param columnType the type of the column variants
+     * @param factory    a factory creating the object of a combination
+     * @param <R>        the type of the row variants
+     * @param <C>        the type of the column variants
+     * @param <O>        the type of the objects
+     * @return the table
+     */
+    public static <R extends Enum<R>, C extends Enum<C>, O> VariantTable<R, C, O> of(Class<R> rowType, Class<C> columnType, BiFunction<? super R, ? super C, ? extends O> factory) {
+        final R[] rows = rowType.getEnumConstants();
+        final C[] columns = columnType.getEnumConstants();
+        final Object[] objects = new Object[rows.length * columns.length];
+        for (final R row : rows) {
+            final int offset = row.ordinal() * columns.length;
+            for (final C column : columns) {
+                objects[offset + column.ordinal()] = Objects.requireNonNull(factory.apply(row, column), "factory returned null");
+            }
+        }
+        return new VariantTable<>(rowType, columnType, columns.length, objects);
+    }
+
+    /**
+     * {@return the object of the given combination}
+     *
+     * @param row    the row variant
+     * @param column the column variant
+     */
+    @SuppressWarnings("unchecked")
+    public O get(R row, C column) {
+        return (O) objects[row.ordinal() * columns + column.ordinal()];
+    }
+
+    /**
+     * {@return the type of the row variants of this table}
+     */
+    public Class<R> rowType() {
+        return rowType;
+    }
+
+    /**
+     * {@return the type of the column variants of this table}
+     */
+    public Class<C> columnType() {
+        return columnType;
+    }
+
+    /**
+     * {@return the amount of objects in this table}
+     */
+    public int size() {
+        return objects.length;
+    }
+
+    /**
+     * {@return an immutable view of the objects of this table, in row-major ordinal order}
+     */
+    @SuppressWarnings("unchecked")
+    public List<O> values() {
+        return (List<O>) (List<?>) Collections.unmodifiableList(Arrays.asList(objects));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class whose {@link Register}-annotated factory methods should be registered to a registry. <br>
+ * For each annotated class the registration annotation processor generates a holder class named {@code <ClassName>Registrations}
+ * in the same package, which registers the objects through a {@link com.matyrobbrt.registrationutils.RegistrationProvider}
+ * and holds precomputed ID constants for them.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * @RegisterTo(modId = "modid", registry = "minecraft:item")
+ * public class ModItems {
+ *     @Register("ruby")
+ *     static Item ruby() {
+ *         return new Item(new Item.Properties());
+ *     }
+ * }
+ *
+ * // Generated
+ * ModItemsRegistrations.RUBY.get();
+ * }</pre>
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface RegisterTo {
+    /**
+     * {@return the ID of the mod to register the objects under}
+     */
+    String modId();
+
+    /**
+     * {@return the ID of the registry to register the objects to, for example {@code minecraft:item}}
+     */
+    String registry();
+
+    /**
+     * {@return the type of the objects of the registry}
+     * Can be omitted for the item and block registries.
+     */
+    Class<?> type() default Void.class;
+}
@@ -0,0 +1,317 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.processor;
+
+import com.matyrobbrt.registrationutils.annotation.Register;
+import com.matyrobbrt.registrationutils.annotation.RegisterTo;
+import com.matyrobbrt.registrationutils.util.$RegistrationNames;
+import org.jetbrains.annotations.ApiStatus;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * An annotation processor generating holder classes for {@link RegisterTo}-annotated classes. <br>
+ * The generated holders register the objects of the {@link Register}-annotated factory methods and hold precomputed ID constants for them.
+ * A manifest listing the generated holders is written next to them, from which {@link com.matyrobbrt.registrationutils.RegistryHolder#loadAll()}
+ * loads them, so they need neither bytecode scanning nor service discovery.
+ */
+@ApiStatus.Internal
+public class RegistrationProcessor extends AbstractProcessor {
+    public static final String HOLDER_SUFFIX = "Registrations";
+
+    // Derived from the annotations so that it follows the relocation of the library
+    private static final String LIBRARY_PACKAGE = RegisterTo.class.getPackageName().substring(0, RegisterTo.class.getPackageName().lastIndexOf('.'));
+    private static final Pattern VALID_PATH = Pattern.compile("[a-z0-9/._-]+");
+    private static final Pattern VALID_NAMESPACE = Pattern.compile("[a-z0-9._-]+");
+
+    private final List<String> holders = new ArrayList<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(RegisterTo.class.getCanonicalName(), Register.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (final Element element : roundEnv.getElementsAnnotatedWith(RegisterTo.class)) {
+            if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@RegisterTo can only be applied to classes and interfaces");
+                continue;
+            }
+            generate((TypeElement) element);
+        }
+        for (final Element element : roundEnv.getElementsAnnotatedWith(Register.class)) {
+            if (element.getEnclosingElement().getAnnotation(RegisterTo.class) == null) {
+                error(element, "@Register methods must be declared in a @RegisterTo-annotated class");
+            }
+        }
+        if (roundEnv.processingOver() && !holders.isEmpty()) {
+            writeManifest();
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) {
+        final RegisterTo registerTo = type.getAnnotation(RegisterTo.class);
+        final String modId = registerTo.modId();
+        if (!VALID_NAMESPACE.matcher(modId).matches()) {
+            error(type, "Invalid mod ID: " + modId);
+            return;
+        }
+        final String registry = registerTo.registry().indexOf(':') < 0 ? "minecraft:" + registerTo.registry() : registerTo.registry();
+        final int separator = registry.indexOf(':');
+        if (!VALID_NAMESPACE.matcher(registry.substring(0, separator)).matches() || !VALID_PATH.matcher(registry.substring(separator + 1)).matches()) {
+            error(type, "Invalid registry ID: " + registry);
+            return;
+        }
+        final RegistryKind kind = RegistryKind.of(registry);
+
+        final String baseType;
+        if (kind == RegistryKind.OTHER) {
+            final TypeMirror declared = declaredType(registerTo);
+            if (declared.getKind() != TypeKind.DECLARED || declared.toString().equals(Void.class.getCanonicalName())) {
+                error(type, "The type of the objects of registry " + registry + " must be specified");
+                return;
+            }
+            baseType = processingEnv.getTypeUtils().erasure(declared).toString();
+        } else {
+            baseType = kind.type;
+        }
+        final TypeElement baseElement = processingEnv.getElementUtils().getTypeElement(baseType);
+
+        final Map<String, Entry> entries = new LinkedHashMap<>();
+        final Set<String> fields = new HashSet<>(Set.of("MOD_ID", "REGISTRY_ID", "ENTRY_NAMES", "PROVIDER"));
+        boolean valid = true;
+        for (final Element enclosed : type.getEnclosedElements()) {
+            final Register register = enclosed.getAnnotation(Register.class);
+            if (register == null || enclosed.getKind() != ElementKind.METHOD) continue;
+
+            final ExecutableElement method = (ExecutableElement) enclosed;
+            final TypeMirror returnType = method.getReturnType();
+            if (!method.getModifiers().contains(Modifier.STATIC) || method.getModifiers().contains(Modifier.PRIVATE)
+                    || !method.getParameters().isEmpty() || !method.getTypeParameters().isEmpty()) {
+                error(method, "@Register methods must be non-private, static, non-generic and have no parameters");
+                valid = false;
+                continue;
+            }
+            if (returnType.getKind() != TypeKind.DECLARED) {
+                error(method, "@Register methods must return an object");
+                valid = false;
+                continue;
+            }
+            if (baseElement != null && !processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(returnType), processingEnv.getTypeUtils().erasure(baseElement.asType()))) {
+                error(method, "The return type of the method must be a subtype of " + baseType);
+                valid = false;
+                continue;
+            }
+
+            final String name = register.value().isEmpty() ? $RegistrationNames.toSnakeCase(method.getSimpleName().toString()) : register.value();
+            if (!VALID_PATH.matcher(name).matches()) {
+                error(method, "Invalid object name: " + name);
+                valid = false;
+                continue;
+            }
+            final String field = toConstantCase(name);
+            if (entries.containsKey(name) || !fields.add(field) || !fields.add(field + "_ID")) {
+                error(method, "Duplicate object name: " + name);
+                valid = false;
+                continue;
+            }
+            entries.put(name, new Entry(name, field, method.getSimpleName().toString(), returnType.toString()));
+        }
+        if (!valid) return;
+
+        final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        final String holderName = holderName(type);
+        final String qualifiedName = pkg.isUnnamed() ? holderName : pkg.getQualifiedName() + "." + holderName;
+        try {
+            final JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            try (final Writer writer = file.openWriter()) {
+                writer.write(source(pkg, holderName, type.getQualifiedName().toString(), processingEnv.getElementUtils().getBinaryName(type).toString(), modId, registry, kind, baseType, entries.values()));
+            }
+        } catch (IOException e) {
+            error(type, "Could not generate holder " + qualifiedName + ": " + e);
+            return;
+        }
+        holders.add(qualifiedName);
+        originatingElements.add(type);
+    }
+
+    private String source(PackageElement pkg, String holderName, String owner, String ownerBinaryName, String modId, String registry, RegistryKind kind, String baseType, Iterable<Entry> entries) {
+        final StringBuilder builder = new StringBuilder();
+        if (!pkg.isUnnamed()) {
+            builder.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+        }
+        builder.append("@javax.annotation.processing.Generated(\"").append(RegistrationProcessor.class.getName()).append("\")\n")
+                .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+                .append("public final class ").append(holderName).append(" implements ").append(LIBRARY_PACKAGE).append(".RegistryHolder {\n")
+                .append("    public static final String MOD_ID = \"").append(modId).append("\";\n")
+                .append("    public static final String REGISTRY_ID = \"").append(registry).append("\";\n\n");
+
+        final List<String> names = new ArrayList<>();
+        for (final Entry entry : entries) {
+            builder.append("    public static final String ").append(entry.field).append("_ID = \"").append(modId).append(':').append(entry.name).append("\";\n");
+            names.add('"' + entry.name + '"');
+        }
+        builder.append("\n    /**\n     * The names of the objects registered by this holder, in declaration order.\n     */\n")
+                .append("    public static final java.util.List<String> ENTRY_NAMES = java.util.List.of(").append(String.join(", ", names)).append(");\n\n");
+
+        // The providers are shared with the registration manifest, so that objects it registered are not registered again
+        switch (kind) {
+            case ITEM, BLOCK -> builder.append("    public static final ").append(LIBRARY_PACKAGE).append(".specialised.").append(kind.provider)
+                    .append(" PROVIDER = ").append(LIBRARY_PACKAGE).append(".RegistrationManifest.").append(kind.sharedProvider).append("(MOD_ID);\n");
+            case OTHER -> {
+                final int separator = registry.indexOf(':');
+                builder.append("    public static final ").append(LIBRARY_PACKAGE).append(".RegistrationProvider<").append(baseType).append("> PROVIDER = ")
+                        .append(LIBRARY_PACKAGE).append(".RegistrationManifest.provider(net.minecraft.resources.ResourceKey.<").append(baseType)
+                        .append(">createRegistryKey(new net.minecraft.resources.ResourceLocation(\"").append(registry, 0, separator).append("\", \"")
+                        .append(registry.substring(separator + 1)).append("\")), MOD_ID);\n");
+            }
+        }
+        builder.append('\n');
+
+        for (final Entry entry : entries) {
+            builder.append("    public static final ");
+            if (kind == RegistryKind.OTHER) {
+                builder.append(LIBRARY_PACKAGE).append(".RegistryObject<").append(baseType).append(", ").append(entry.type).append('>');
+            } else {
+                builder.append(LIBRARY_PACKAGE).append(".specialised.").append(kind.object).append('<').append(entry.type).append('>');
+            }
+            builder.append(' ').append(entry.field).append(" = ").append(LIBRARY_PACKAGE).append(".RegistrationManifest.register(PROVIDER, \"").append(entry.name).append("\", \"")
+                    .append(ownerBinaryName).append("\", ").append(owner).append("::").append(entry.method).append(");\n");
+        }
+
+        return builder.append('\n')
+                .append("    public ").append(holderName).append("() {\n    }\n\n")
+                .append("    /**\n     * Loads this class, registering its objects.\n     */\n")
+                .append("    public static void init() {\n    }\n")
+                .append("}\n")
+                .toString();
+    }
+
+    private void writeManifest() {
+        try {
+            final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", $RegistrationNames.generatedHoldersManifest(LIBRARY_PACKAGE), originatingElements.toArray(Element[]::new));
+            try (final Writer writer = file.openWriter()) {
+                writer.write(holders.stream().sorted().collect(Collectors.joining("\n", "", "\n")));
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write the registration holder manifest: " + e);
+        }
+    }
+
+    private static TypeMirror declaredType(RegisterTo registerTo) {
+        try {
+            registerTo.type();
+            throw new IllegalStateException("Annotation values should not be available as classes during processing");
+        } catch (MirroredTypeException exception) {
+            return exception.getTypeMirror();
+        }
+    }
+
+    private static String holderName(TypeElement type) {
+        final StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.append(HOLDER_SUFFIX).toString();
+    }
+
+    private static String toConstantCase(String name) {
+        final String field = name.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9_]", "_");
+        return Character.isDigit(field.charAt(0)) ? "_" + field : field;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private record Entry(String name, String field, String method, String type) {
+    }
+
+    private enum RegistryKind {
+        ITEM("net.minecraft.world.item.Item", "ItemRegistrationProvider", "ItemRegistryObject", "items"),
+        BLOCK("net.minecraft.world.level.block.Block", "BlockRegistrationProvider", "BlockRegistryObject", "blocks"),
+        OTHER(null, null, null, null);
+
+        private final String type;
+        private final String provider;
+        private final String object;
+        private final String sharedProvider;
+
+        RegistryKind(String type, String provider, String object, String sharedProvider) {
+            this.type = type;
+            this.provider = provider;
+            this.object = object;
+            this.sharedProvider = sharedProvider;
+        }
+
+        static RegistryKind of(String registry) {
+            return switch (registry) {
+                case "minecraft:item" -> ITEM;
+                case "minecraft:block" -> BLOCK;
+                default -> OTHER;
+            };
+        }
+    }
+}
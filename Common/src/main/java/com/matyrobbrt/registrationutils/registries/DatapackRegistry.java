@@ -28,16 +28,18 @@
 
 package com.matyrobbrt.registrationutils.registries;
 
-import net.minecraft.Util;
+import com.matyrobbrt.registrationutils.util.$SharedBootstrapLookup;
+import com.matyrobbrt.registrationutils.util.DatapackRegistryGenerator;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.core.RegistrySetBuilder;
-import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.data.DataProvider;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -70,6 +72,28 @@ public interface DatapackRegistry<T> {
         return builder(ResourceKey.createRegistryKey(key));
     }
 
+    /**
+     * Creates a DataProvider factory that generates the bootstrap entries of all the given {@code registries} at once. <br>
+     * This is cheaper than using a generator for each registry, as the registry data of all registries is resolved once,
+     * and all elements are encoded using the same {@link net.minecraft.resources.RegistryOps}.
+     *
+     * @param lookupProvider the provider to generate entries from
+     * @param registries     the registries to generate
+     * @return the DataProvider factory
+     */
+    static DataProvider.Factory<DataProvider> combinedDataGenerator(CompletableFuture<HolderLookup.Provider> lookupProvider, Collection<? extends DatapackRegistry<?>> registries) {
+        final List<DatapackRegistry<?>> copy = List.copyOf(registries);
+        return packOutput -> new DatapackRegistryGenerator(packOutput, lookupProvider, copy);
+    }
+
+    /**
+     * {@return a lookup provider containing the bootstrap entries of all datapack registries}
+     * The provider is built once, and shared by the {@link #bootstrapDataGenerator() default bootstrap generators}.
+     */
+    static CompletableFuture<HolderLookup.Provider> sharedBootstrapLookup() {
+        return $SharedBootstrapLookup.get();
+    }
+
     /**
      * {@return the key of the registry}
      */
@@ -84,14 +108,13 @@ public interface DatapackRegistry<T> {
 
     /**
      * {@return a DataProvider factory that generates the bootstrap entries of this datapack registry from a set to which entries have been added via {@link #addToSet(RegistrySetBuilder)}}
+     * The set is shared between all datapack registries, and as such only built once.
+     *
+     * @see #sharedBootstrapLookup()
      */
     default DataProvider.Factory<DataProvider> bootstrapDataGenerator() {
-        return bootstrapDataGenerator(CompletableFuture.supplyAsync(() -> {
-            final RegistryAccess.Frozen access = RegistryAccess.fromRegistryOfRegistries(BuiltInRegistries.REGISTRY);
-            final RegistrySetBuilder builder = new RegistrySetBuilder();
-            addToSet(builder);
-            return builder.build(access);
-        }, Util.backgroundExecutor()));
+        $SharedBootstrapLookup.register(this);
+        return bootstrapDataGenerator($SharedBootstrapLookup.get());
     }
 
     /**
@@ -100,7 +123,9 @@ public interface DatapackRegistry<T> {
     void addToSet(RegistrySetBuilder builder);
 
     /**
-     * Gets the registry from the given {@code registryAccess}.
+     * Gets the registry from the given {@code registryAccess}. <br>
+     * The registry is cached per access, in a map that compares accesses by identity and only weakly references them,
+     * so calling this method repeatedly with the same access is cheap, even when the client and the server alternate.
      *
      * @param registryAccess the access to get the registry from
      * @return the registry
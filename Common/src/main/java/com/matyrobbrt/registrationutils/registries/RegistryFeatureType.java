@@ -28,15 +28,17 @@
 
 package com.matyrobbrt.registrationutils.registries;
 
-import com.google.common.collect.MapMaker;
 import net.minecraft.resources.ResourceLocation;
 
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 /**
  * Represents a feature a registry may have. <br>
- * Registry features are interned and ID-based, and can have arguments, unless they are of the {@link Void} type.
+ * Registry features are interned and ID-based, and can have arguments, unless they are of the {@link Void} type. <br>
+ * Interned features are never released, so each feature keeps the same identity and {@link #ordinal() ordinal} for the lifetime of the game.
  *
  * @param <X> the type of the feature value
  * @see #get(ResourceLocation, Class)
@@ -44,7 +46,8 @@ import java.util.function.Supplier;
  * @see RegistryBuilder#withFeature(RegistryFeatureType, Object)
  */
 public final class RegistryFeatureType<X> {
-    private static final ConcurrentMap<ResourceLocation, RegistryFeatureType<?>> VALUES = new MapMaker().weakValues().makeMap();
+    private static final ConcurrentMap<ResourceLocation, RegistryFeatureType<?>> VALUES = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ORDINAL = new AtomicInteger();
 
     /**
      * When a registry has this feature, its IDs will be synced between servers and clients. Works on both loaders.
@@ -59,12 +62,22 @@ public final class RegistryFeatureType<X> {
      */
     public static final RegistryFeatureType<ResourceLocation> DEFAULTED = get(new ResourceLocation("defaulted"), ResourceLocation.class);
 
+    /**
+     * When a registry has this feature, a bitset of the raw IDs of each tag will be built whenever tags are bound, speeding up tag membership checks. Works on both loaders.
+     *
+     * @see TagBitSets
+     * @see com.matyrobbrt.registrationutils.RegistryObject#is(net.minecraft.tags.TagKey)
+     */
+    public static final RegistryFeatureType<Void> TAG_BITSETS = getNoArgs(new ResourceLocation("tag_bitsets"));
+
     private final ResourceLocation id;
     private final Class<X> argumentType;
+    private final int ordinal;
 
     private RegistryFeatureType(ResourceLocation id, Class<X> argumentType) {
         this.id = id;
         this.argumentType = argumentType;
+        this.ordinal = NEXT_ORDINAL.getAndIncrement();
     }
 
     @SuppressWarnings("unchecked")
@@ -83,4 +96,11 @@ public final class RegistryFeatureType<X> {
     public Class<X> getArgumentType() {
         return argumentType;
     }
+
+    /**
+     * {@return a small, stable ID of this feature, assigned in creation order}
+     */
+    public int ordinal() {
+        return ordinal;
+    }
 }
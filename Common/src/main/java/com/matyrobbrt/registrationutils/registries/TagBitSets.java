@@ -0,0 +1,166 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.registries;
+
+import com.matyrobbrt.registrationutils.RegistryObject;
+import com.matyrobbrt.registrationutils.util.$RawIdCache;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.tags.TagKey;
+import org.jetbrains.annotations.ApiStatus;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bitset-backed tag membership for a registry created with the {@link RegistryFeatureType#TAG_BITSETS} feature. <br>
+ * Whenever tags are bound, a bitset indexed by raw ID is built for every tag of the registry, making membership checks
+ * an identity map lookup followed by a bit test. If the IDs of the registry were remapped since the tags were bound, or if
+ * tags were not bound yet, the checks fall back to vanilla {@link Holder#is(TagKey)}.
+ *
+ * @param <T> the type of the registry
+ * @see RegistryObject#is(TagKey)
+ */
+public final class TagBitSets<T> {
+    private static final Map<ResourceKey<?>, TagBitSets<?>> BY_REGISTRY = new ConcurrentHashMap<>();
+    private static volatile int generation;
+
+    private final Supplier<Registry<T>> registry;
+    private volatile @Nullable Snapshot<T> snapshot;
+
+    private TagBitSets(Supplier<Registry<T>> registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Gets the tag bitsets of a registry.
+     *
+     * @param key the key of the registry
+     * @param <T> the type of the registry
+     * @return the tag bitsets of the registry, or {@code null} if the registry does not have the {@link RegistryFeatureType#TAG_BITSETS} feature
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <T> TagBitSets<T> find(ResourceKey<? extends Registry<T>> key) {
+        return (TagBitSets<T>) BY_REGISTRY.get(key);
+    }
+
+    /**
+     * {@return a counter that is incremented whenever the bitsets of a registry are created}
+     * Callers caching a {@code null} result of {@link #find(ResourceKey)} can compare it in order to know when to look the bitsets up again.
+     */
+    @ApiStatus.Internal
+    public static int generation() {
+        return generation;
+    }
+
+    @ApiStatus.Internal
+    public static synchronized <T> TagBitSets<T> create(ResourceKey<? extends Registry<T>> key, Supplier<Registry<T>> registry) {
+        final TagBitSets<T> bitSets = new TagBitSets<>(registry);
+        if (BY_REGISTRY.putIfAbsent(key, bitSets) != null) {
+            throw new IllegalStateException("Registry " + key.location() + " already has tag bitsets");
+        }
+        generation++;
+        return bitSets;
+    }
+
+    /**
+     * Rebuilds the bitsets of all registries. This is called by the loader implementations when tags are bound.
+     */
+    @ApiStatus.Internal
+    public static void rebuildAll() {
+        BY_REGISTRY.values().forEach(TagBitSets::rebuild);
+    }
+
+    /**
+     * Checks if the given object is in a tag.
+     *
+     * @param tag    the tag
+     * @param object the object to check
+     * @return if the object is in the tag
+     */
+    public boolean is(TagKey<T> tag, RegistryObject<T, ?> object) {
+        final Snapshot<T> current = snapshot;
+        if (current == null || !$RawIdCache.isValid(current.epoch)) {
+            return object.asHolder().is(tag);
+        }
+        return current.contains(tag, object.getRawId());
+    }
+
+    /**
+     * Checks if the given value is in a tag.
+     *
+     * @param tag   the tag
+     * @param value the value to check
+     * @return if the value is in the tag
+     */
+    public boolean is(TagKey<T> tag, T value) {
+        final Snapshot<T> current = snapshot;
+        if (current == null || !$RawIdCache.isValid(current.epoch)) {
+            return registry.get().wrapAsHolder(value).is(tag);
+        }
+        return current.contains(tag, registry.get().getId(value));
+    }
+
+    private void rebuild() {
+        final Registry<T> reg = registry.get();
+        final int epoch = $RawIdCache.epoch();
+        // Tag keys are interned, so they can be compared by identity
+        final Reference2ObjectOpenHashMap<TagKey<T>, long[]> bits = new Reference2ObjectOpenHashMap<>();
+        reg.getTags().forEach(pair -> {
+            long[] words = new long[0];
+            for (final Holder<T> holder : pair.getSecond()) {
+                final int id = reg.getId(holder.value());
+                if (id < 0) continue;
+                final int word = id >>> 6;
+                if (word >= words.length) {
+                    words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+                }
+                words[word] |= 1L << id;
+            }
+            bits.put(pair.getFirst(), words);
+        });
+        bits.trim();
+        snapshot = new Snapshot<>(epoch, bits);
+    }
+
+    private record Snapshot<T>(int epoch, Reference2ObjectOpenHashMap<TagKey<T>, long[]> bits) {
+        boolean contains(TagKey<T> tag, int id) {
+            final long[] words = bits.get(tag);
+            if (words == null || id < 0) return false;
+            final int word = id >>> 6;
+            return word < words.length && (words[word] & (1L << id)) != 0;
+        }
+    }
+}
@@ -30,9 +30,13 @@ package com.matyrobbrt.registrationutils.specialised;
 
 import com.matyrobbrt.registrationutils.RegistrationProvider;
 import com.matyrobbrt.registrationutils.RegistryObject;
+import com.matyrobbrt.registrationutils.VariantFamily;
+import com.matyrobbrt.registrationutils.VariantTable;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockBehaviour;
 
+import javax.annotation.Nullable;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -59,6 +63,28 @@ public interface BlockRegistrationProvider extends RegistrationProvider<Block> {
      */
     <B extends Block> BlockRegistryObject<B> register(String name, Supplier<? extends B> block);
 
+    // The base implementations register through the specialised register, so they return block objects
+    @Override
+    default <B extends Block> BlockRegistryObject<B> registerClient(String name, Supplier<? extends B> client, Supplier<? extends B> placeholder) {
+        return (BlockRegistryObject<B>) RegistrationProvider.super.registerClient(name, client, placeholder);
+    }
+
+    @Override
+    @Nullable
+    default <B extends Block> BlockRegistryObject<B> registerClientOnly(String name, Supplier<? extends B> supplier) {
+        return (BlockRegistryObject<B>) RegistrationProvider.super.registerClientOnly(name, supplier);
+    }
+
+    @Override
+    default <E extends Enum<E>, B extends Block> VariantFamily<E, BlockRegistryObject<B>> registerFamily(Class<E> variants, Function<? super E, String> naming, Function<? super E, ? extends B> factory) {
+        return VariantFamily.of(variants, variant -> register(naming.apply(variant), () -> factory.apply(variant)));
+    }
+
+    @Override
+    default <R extends Enum<R>, C extends Enum<C>, B extends Block> VariantTable<R, C, BlockRegistryObject<B>> registerTable(Class<R> rows, Class<C> columns, BiFunction<? super R, ? super C, String> naming, BiFunction<? super R, ? super C, ? extends B> factory) {
+        return VariantTable.of(rows, columns, (row, column) -> register(naming.apply(row, column), () -> factory.apply(row, column)));
+    }
+
     /**
      * Registers a simple block.
      *
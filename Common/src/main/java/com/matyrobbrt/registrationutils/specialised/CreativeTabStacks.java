@@ -0,0 +1,119 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.specialised;
+
+import com.matyrobbrt.registrationutils.RegistryObject;
+import com.matyrobbrt.registrationutils.util.$RawIdCache;
+import net.minecraft.world.flag.FeatureFlagSet;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * A cached list of the items of an {@link ItemRegistrationProvider} to display in a creative tab, in the order of the
+ * {@link ItemRegistrationProvider#getEntries() entries} of the provider. <br>
+ * The items to display are resolved once and reused each time the contents of the tab are rebuilt. They are only resolved again
+ * when the enabled features change, when registry IDs are remapped, or when the provider binds new items.
+ * The stacks are created on each call, since the tab output and its listeners keep and may modify the stacks they are given.
+ * <p>
+ * Example usage on Fabric:
+ * <pre>{@code
+ * final CreativeTabStacks stacks = ITEMS.creativeTabStacks();
+ * ItemGroupEvents.modifyEntriesEvent(CreativeModeTabs.INGREDIENTS)
+ *         .register(entries -> entries.acceptAll(stacks.get(entries.getEnabledFeatures())));
+ * }</pre>
+ *
+ * @see ItemRegistrationProvider#creativeTabStacks(Predicate)
+ */
+public final class CreativeTabStacks {
+    private final ItemRegistrationProvider provider;
+    private final Predicate<? super RegistryObject<Item, ? extends Item>> filter;
+    private final AtomicInteger bound = new AtomicInteger();
+    private volatile @Nullable Snapshot snapshot;
+
+    CreativeTabStacks(ItemRegistrationProvider provider, Predicate<? super RegistryObject<Item, ? extends Item>> filter) {
+        this.provider = provider;
+        this.filter = filter;
+        // Counting bound items means that checking the cache does not need to look at the entries of the provider
+        provider.addListener(entry -> bound.incrementAndGet());
+    }
+
+    /**
+     * Gets the stacks of the items enabled by the given features. <br>
+     * The list and the stacks are new on each call, so callers may modify them.
+     *
+     * @param enabledFeatures the enabled features
+     * @return the stacks
+     */
+    public List<ItemStack> get(FeatureFlagSet enabledFeatures) {
+        final int epoch = $RawIdCache.epoch();
+        // Read before the entries, so that items bound while the cache is built invalidate it
+        final int boundCount = bound.get();
+        final Snapshot current = snapshot;
+        final Item[] items;
+        if (current != null && current.epoch() == epoch && current.bound() == boundCount && current.features().equals(enabledFeatures)) {
+            items = current.items();
+        } else {
+            final Collection<RegistryObject<Item, ? extends Item>> entries = provider.getEntries();
+            final List<Item> enabled = new ArrayList<>(entries.size());
+            for (final RegistryObject<Item, ? extends Item> entry : entries) {
+                if (filter.test(entry)) {
+                    final Item item = entry.get();
+                    if (item.isEnabled(enabledFeatures)) {
+                        enabled.add(item);
+                    }
+                }
+            }
+            items = enabled.toArray(Item[]::new);
+            snapshot = new Snapshot(epoch, boundCount, enabledFeatures, items);
+        }
+
+        final List<ItemStack> stacks = new ArrayList<>(items.length);
+        for (final Item item : items) {
+            stacks.add(new ItemStack(item));
+        }
+        return stacks;
+    }
+
+    /**
+     * Drops the cached items, so that they are rebuilt the next time they are requested.
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private record Snapshot(int epoch, int bound, FeatureFlagSet features, Item[] items) {
+    }
+}
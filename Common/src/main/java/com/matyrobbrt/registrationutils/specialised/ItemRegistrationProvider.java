@@ -30,12 +30,19 @@ package com.matyrobbrt.registrationutils.specialised;
 
 import com.matyrobbrt.registrationutils.RegistrationProvider;
 import com.matyrobbrt.registrationutils.RegistryObject;
+import com.matyrobbrt.registrationutils.VariantFamily;
+import com.matyrobbrt.registrationutils.VariantTable;
 import net.minecraft.world.item.BlockItem;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.level.block.Block;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
@@ -60,6 +67,28 @@ public interface ItemRegistrationProvider extends RegistrationProvider<Item> {
      */
     <I extends Item> ItemRegistryObject<I> register(String name, Supplier<? extends I> item);
 
+    // The base implementations register through the specialised register, so they return item objects
+    @Override
+    default <I extends Item> ItemRegistryObject<I> registerClient(String name, Supplier<? extends I> client, Supplier<? extends I> placeholder) {
+        return (ItemRegistryObject<I>) RegistrationProvider.super.registerClient(name, client, placeholder);
+    }
+
+    @Override
+    @Nullable
+    default <I extends Item> ItemRegistryObject<I> registerClientOnly(String name, Supplier<? extends I> supplier) {
+        return (ItemRegistryObject<I>) RegistrationProvider.super.registerClientOnly(name, supplier);
+    }
+
+    @Override
+    default <E extends Enum<E>, I extends Item> VariantFamily<E, ItemRegistryObject<I>> registerFamily(Class<E> variants, Function<? super E, String> naming, Function<? super E, ? extends I> factory) {
+        return VariantFamily.of(variants, variant -> register(naming.apply(variant), () -> factory.apply(variant)));
+    }
+
+    @Override
+    default <R extends Enum<R>, C extends Enum<C>, I extends Item> VariantTable<R, C, ItemRegistryObject<I>> registerTable(Class<R> rows, Class<C> columns, BiFunction<? super R, ? super C, String> naming, BiFunction<? super R, ? super C, ? extends I> factory) {
+        return VariantTable.of(rows, columns, (row, column) -> register(naming.apply(row, column), () -> factory.apply(row, column)));
+    }
+
     /**
      * Registers a simple item.
      *
@@ -124,4 +153,85 @@ public interface ItemRegistrationProvider extends RegistrationProvider<Item> {
     default <B extends Block, I extends BlockItem> ItemRegistryObject<I> registerBlockItem(RegistryObject<Block, B> block, Item.Properties properties, BiFunction<B, Item.Properties, ? extends I> func) {
         return register(block.getId().getPath(), () -> func.apply(block.get(), properties));
     }
+
+    /**
+     * Registers a simple block item for every block registered by the given provider.
+     *
+     * @param blocks the provider of the blocks to register block items for
+     * @return wrappers containing the lazy registered items, in the order of the {@link RegistrationProvider#getEntries() entries} of the block provider
+     * @see #registerBlockItems(BlockRegistrationProvider, Predicate, Item.Properties, BiFunction)
+     */
+    default List<ItemRegistryObject<BlockItem>> registerBlockItems(BlockRegistrationProvider blocks) {
+        return registerBlockItems(blocks, block -> true, new Item.Properties());
+    }
+
+    /**
+     * Registers a block item for the blocks registered by the given provider that match a filter.
+     *
+     * @param blocks     the provider of the blocks to register block items for
+     * @param filter     a filter for the blocks to register block items for
+     * @param properties the properties for the created items. The same instance is shared by all items
+     * @return wrappers containing the lazy registered items, in the order of the {@link RegistrationProvider#getEntries() entries} of the block provider
+     * @see #registerBlockItems(BlockRegistrationProvider, Predicate, Item.Properties, BiFunction)
+     */
+    default List<ItemRegistryObject<BlockItem>> registerBlockItems(BlockRegistrationProvider blocks, Predicate<? super RegistryObject<Block, ? extends Block>> filter, Item.Properties properties) {
+        return registerBlockItems(blocks, filter, properties, BlockItem::new);
+    }
+
+    /**
+     * Registers a block item for the blocks registered by the given provider that match a filter. <br>
+     * The items are named after their blocks and are created lazily, so this method can be called before the blocks are registered.
+     * Only the blocks the provider registered so far are considered.
+     *
+     * @param blocks     the provider of the blocks to register block items for
+     * @param filter     a filter for the blocks to register block items for
+     * @param properties the properties for the created items. The same instance is shared by all items
+     * @param func       a factory for the new items. The factory should not cache the created items.
+     * @param <I>        the type of the items
+     * @return wrappers containing the lazy registered items, in the order of the {@link RegistrationProvider#getEntries() entries} of the block provider
+     */
+    default <I extends BlockItem> List<ItemRegistryObject<I>> registerBlockItems(BlockRegistrationProvider blocks, Predicate<? super RegistryObject<Block, ? extends Block>> filter, Item.Properties properties, BiFunction<Block, Item.Properties, ? extends I> func) {
+        final Collection<RegistryObject<Block, ? extends Block>> entries = blocks.getEntries();
+        final List<ItemRegistryObject<I>> items = new ArrayList<>(entries.size());
+        for (final RegistryObject<Block, ? extends Block> block : entries) {
+            if (filter.test(block)) {
+                items.add(register(block.getId().getPath(), () -> func.apply(block.get(), properties)));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Registers a block item for each block of a family.
+     *
+     * @param blocks     the family of the blocks to register block items for
+     * @param properties the properties for the created items. The same instance is shared by all items
+     * @param <E>        the type of the variants
+     * @param <B>        the type of the blocks
+     * @return a family containing the wrappers of the lazy registered items, indexed by the variant of their block
+     */
+    default <E extends Enum<E>, B extends Block> VariantFamily<E, ItemRegistryObject<BlockItem>> registerBlockItems(VariantFamily<E, ? extends RegistryObject<Block, B>> blocks, Item.Properties properties) {
+        return blocks.map(block -> registerBlockItem(block, properties));
+    }
+
+    /**
+     * Creates a cached list of all the items of this provider, providing their stacks to display in a creative tab.
+     *
+     * @return the cached list
+     * @see #creativeTabStacks(Predicate)
+     */
+    default CreativeTabStacks creativeTabStacks() {
+        return creativeTabStacks(item -> true);
+    }
+
+    /**
+     * Creates a cached list of the items of this provider that match a filter, providing their stacks to display in a creative tab. <br>
+     * The returned object should be created once per tab and kept, as it holds the cache.
+     *
+     * @param filter a filter for the items to include
+     * @return the cached list
+     */
+    default CreativeTabStacks creativeTabStacks(Predicate<? super RegistryObject<Item, ? extends Item>> filter) {
+        return new CreativeTabStacks(this, filter);
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.util;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import javax.annotation.Nullable;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An append-only list that can be appended to from multiple threads without locking. <br>
+ * Elements are stored in chunks of doubling size, so existing elements are never copied when the log grows.
+ * Appending claims an index with a single atomic increment and then writes the element into its slot,
+ * which means that a slot may briefly be claimed but still empty while its writer is running. Readers skip such slots.
+ *
+ * @param <E> the type of the elements
+ */
+@ApiStatus.Internal
+public final class $AppendLog<E> {
+    private static final int FIRST_CHUNK_BITS = 4;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<E>> chunks = new AtomicReferenceArray<>(Integer.SIZE - FIRST_CHUNK_BITS);
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final Collection<E> view = new View();
+
+    /**
+     * Appends an element to the log.
+     *
+     * @param element the element to append
+     * @return the index of the element
+     */
+    public int append(E element) {
+        final int index = claimed.getAndIncrement();
+        final int position = index + (1 << FIRST_CHUNK_BITS);
+        final int chunk = chunkOf(position);
+        chunk(chunk).set(position - (1 << (chunk + FIRST_CHUNK_BITS)), element);
+        return index;
+    }
+
+    /**
+     * {@return the amount of claimed slots} Slots whose writers have not finished yet are included.
+     */
+    public int claimed() {
+        return claimed.get();
+    }
+
+    /**
+     * Gets the element at the given index.
+     *
+     * @param index the index of the element
+     * @return the element, or {@code null} if the slot was not written yet
+     */
+    @Nullable
+    public E get(int index) {
+        final int position = index + (1 << FIRST_CHUNK_BITS);
+        final int chunk = chunkOf(position);
+        final AtomicReferenceArray<E> elements = chunks.get(chunk);
+        return elements == null ? null : elements.get(position - (1 << (chunk + FIRST_CHUNK_BITS)));
+    }
+
+    /**
+     * {@return an unmodifiable live view of the written elements, in index order}
+     */
+    public Collection<E> view() {
+        return view;
+    }
+
+    private static int chunkOf(int position) {
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(position) - FIRST_CHUNK_BITS;
+    }
+
+    private AtomicReferenceArray<E> chunk(int chunk) {
+        AtomicReferenceArray<E> elements = chunks.get(chunk);
+        if (elements == null) {
+            final AtomicReferenceArray<E> created = new AtomicReferenceArray<>(1 << (chunk + FIRST_CHUNK_BITS));
+            elements = chunks.compareAndSet(chunk, null, created) ? created : chunks.get(chunk);
+        }
+        return elements;
+    }
+
+    private final class View extends AbstractCollection<E> {
+        @Override
+        public Iterator<E> iterator() {
+            final int end = claimed();
+            return new Iterator<>() {
+                private int index;
+                private @Nullable E next = advance();
+
+                private @Nullable E advance() {
+                    while (index < end) {
+                        final E element = get(index++);
+                        if (element != null) {
+                            return element;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public E next() {
+                    final E element = next;
+                    if (element == null) {
+                        throw new NoSuchElementException();
+                    }
+                    next = advance();
+                    return element;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            final int end = claimed();
+            int size = 0;
+            for (int i = 0; i < end; i++) {
+                if (get(i) != null) size++;
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.util;
+
+import com.matyrobbrt.registrationutils.registries.RegistryFeatureType;
+import org.jetbrains.annotations.ApiStatus;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * The features of a registry being built, indexed by {@link RegistryFeatureType#ordinal() feature ordinal}. <br>
+ * Presence is stored in a bitmask and arguments in a small array, so that neither lookups nor additions allocate
+ * for the first 64 features.
+ */
+@ApiStatus.Internal
+public final class $FeatureSet {
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private long[] mask = new long[1];
+    private Object[] args = NO_ARGS;
+
+    public <X> void put(RegistryFeatureType<X> type, @Nullable X value) {
+        final int ordinal = type.ordinal();
+        final int word = ordinal >>> 6;
+        if (word >= mask.length) {
+            mask = Arrays.copyOf(mask, word + 1);
+        }
+        mask[word] |= 1L << ordinal;
+        if (value != null) {
+            if (ordinal >= args.length) {
+                args = Arrays.copyOf(args, Math.max(ordinal + 1, 8));
+            }
+            args[ordinal] = value;
+        } else if (ordinal < args.length) {
+            args[ordinal] = null;
+        }
+    }
+
+    public boolean has(RegistryFeatureType<?> type) {
+        final int ordinal = type.ordinal();
+        final int word = ordinal >>> 6;
+        return word < mask.length && (mask[word] & (1L << ordinal)) != 0;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <X> X get(RegistryFeatureType<X> type) {
+        final int ordinal = type.ordinal();
+        return ordinal < args.length ? (X) args[ordinal] : null;
+    }
+}
@@ -30,6 +30,12 @@ package com.matyrobbrt.registrationutils.util;
 
 import org.jetbrains.annotations.ApiStatus;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
 import java.util.ServiceLoader;
 
 @ApiStatus.Internal
@@ -47,4 +53,30 @@ public class $InternalRegUtils {
             return instance;
         }
     }
+
+    /**
+     * Loads and initialises the holders listed in the manifests written by the registration annotation processor.
+     *
+     * @param loader the class loader to find the manifests and load the holders with
+     */
+    public static void loadGeneratedHolders(ClassLoader loader) {
+        final String pkg = $InternalRegUtils.class.getPackageName();
+        final String manifest = $RegistrationNames.generatedHoldersManifest(pkg.substring(0, pkg.lastIndexOf('.')));
+        try {
+            final Enumeration<URL> manifests = loader.getResources(manifest);
+            while (manifests.hasMoreElements()) {
+                try (final BufferedReader reader = new BufferedReader(new InputStreamReader(manifests.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (!line.isEmpty()) {
+                            Class.forName(line, true, loader);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new RuntimeException("Could not load generated registry holders", e);
+        }
+    }
 }
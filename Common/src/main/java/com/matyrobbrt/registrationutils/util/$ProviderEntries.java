@@ -0,0 +1,320 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.util;
+
+import com.google.common.collect.MapMaker;
+import com.matyrobbrt.registrationutils.RegistryObject;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.ApiStatus;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * The entries of a {@link com.matyrobbrt.registrationutils.RegistrationProvider}. <br>
+ * Entries are appended to a {@link $AppendLog log}. Appending claims a slot with an atomic increment, so concurrent registrations only
+ * contend on that counter, and never block. Once the loader reports the end of registration, the entries are {@link #freeze() frozen}
+ * into an array sorted by ID that is only used to look entries up using binary search. Registering an object after the entries were frozen
+ * makes the array stale until the next freeze, during which lookups fall back to scanning the log.
+ * <p>
+ * Entries always iterate in the order their slots were claimed, frozen or not. That is registration order when registering from a single thread,
+ * but it is <strong>not deterministic</strong> when objects are registered from multiple threads.
+ * <p>
+ * Entries are delivered to listeners once bound: when they are added if the loader registers objects immediately,
+ * or when they are frozen otherwise. Batch listeners are delivered the entries bound since their previous batch whenever the entries are frozen.
+ * Each listener keeps a cursor into the log which is only advanced through a compare-and-set, so each listener sees each entry exactly once
+ * without any locking. Listeners are invoked on the thread that registered, froze or added the listener, and may be invoked
+ * concurrently if objects are registered from multiple threads.
+ * <p>
+ * Bound values are mapped back to their entries by an identity index, which is built lazily for frozen entries
+ * and published as an immutable snapshot so lookups never lock. While the entries are not frozen, lookups scan the log instead,
+ * so that registering does not repeatedly invalidate the index.
+ *
+ * @param <T> the type of the provider
+ */
+@ApiStatus.Internal
+public final class $ProviderEntries<T> {
+    // Providers are only weakly referenced, so that providers which are no longer reachable are not kept alive for the lifetime of the game
+    private static final Set<$ProviderEntries<?>> ALL = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+    private static final Comparator<RegistryObject<?, ?>> BY_ID = Comparator.comparing(RegistryObject::getId);
+    private static final AtomicBoolean RECORDED_WARM_START = new AtomicBoolean();
+
+    private final boolean bindOnAdd;
+    private final String modId;
+    private final ResourceKey<?> registry;
+
+    private final $AppendLog<RegistryObject<T, ? extends T>> log = new $AppendLog<>();
+    private volatile @Nullable Frozen<T> frozen;
+    private volatile int bound;
+
+    private final AtomicReference<List<Cursor<? super RegistryObject<T, ? extends T>>>> listeners = new AtomicReference<>(List.of());
+    private final AtomicReference<List<Cursor<? super List<RegistryObject<T, ? extends T>>>>> batchListeners = new AtomicReference<>(List.of());
+
+    private volatile @Nullable ReverseIndex<T> reverse;
+
+    /**
+     * @param bindOnAdd whether entries are bound as soon as they are added
+     * @param modId     the mod ID of the provider
+     * @param registry  the key of the registry of the provider
+     */
+    public $ProviderEntries(boolean bindOnAdd, String modId, ResourceKey<?> registry) {
+        this.bindOnAdd = bindOnAdd;
+        this.modId = modId;
+        this.registry = registry;
+        ALL.add(this);
+    }
+
+    /**
+     * Freezes the entries of all providers. The first time, the amount of entries of each provider is recorded in the {@link $WarmStart warm-start cache}.
+     */
+    public static void freezeAll() {
+        ALL.forEach($ProviderEntries::freeze);
+        if (RECORDED_WARM_START.compareAndSet(false, true)) {
+            final Map<String, Integer> counts = new TreeMap<>();
+            for (final $ProviderEntries<?> entries : ALL) {
+                counts.merge($WarmStart.key(entries.modId, entries.registry), entries.log.claimed(), Integer::sum);
+            }
+            $WarmStart.write(counts);
+        }
+    }
+
+    public void add(RegistryObject<T, ? extends T> entry) {
+        log.append(entry);
+        // Delivering after the entry was written means that the last writer of a range of slots always delivers the entire range
+        for (final Cursor<? super RegistryObject<T, ? extends T>> cursor : listeners.get()) {
+            deliver(cursor);
+        }
+    }
+
+    /**
+     * {@return an immutable view of the entries, in the order their slots were claimed}
+     */
+    public Collection<RegistryObject<T, ? extends T>> view() {
+        final Frozen<T> current = currentFrozen();
+        return current == null ? log.view() : current.view;
+    }
+
+    public void addListener(Consumer<? super RegistryObject<T, ? extends T>> listener) {
+        final Cursor<? super RegistryObject<T, ? extends T>> cursor = new Cursor<>(listener);
+        listeners.updateAndGet(list -> append(list, cursor));
+        deliver(cursor);
+    }
+
+    public void addBatchListener(Consumer<? super List<RegistryObject<T, ? extends T>>> listener) {
+        final Cursor<? super List<RegistryObject<T, ? extends T>>> cursor = new Cursor<>(listener);
+        batchListeners.updateAndGet(list -> append(list, cursor));
+        deliverBatch(cursor);
+    }
+
+    @Nullable
+    public RegistryObject<T, ? extends T> get(ResourceLocation id) {
+        final Frozen<T> current = currentFrozen();
+        if (current != null) {
+            return current.get(id);
+        }
+        for (final RegistryObject<T, ? extends T> entry : log.view()) {
+            if (entry.getId().equals(id)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the entry whose bound value is the given object, compared by identity.
+     *
+     * @param value the value
+     * @return the entry, or {@code null} if no bound entry has that value
+     */
+    @Nullable
+    public RegistryObject<T, ? extends T> find(T value) {
+        final Frozen<T> current = currentFrozen();
+        if (current == null) {
+            for (final RegistryObject<T, ? extends T> entry : log.view()) {
+                if (isBound(entry) && entry.get() == value) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+        ReverseIndex<T> index = reverse;
+        if (index == null || index.source() != current) {
+            // Building the index is idempotent, so racing threads may each build one instead of locking
+            index = buildReverse(current);
+            reverse = index;
+        }
+        return index.entries().get(value);
+    }
+
+    private ReverseIndex<T> buildReverse(Frozen<T> source) {
+        final Reference2ObjectOpenHashMap<T, RegistryObject<T, ? extends T>> index = new Reference2ObjectOpenHashMap<>(source.sorted.length);
+        for (final RegistryObject<T, ? extends T> entry : source.sorted) {
+            if (isBound(entry)) {
+                index.put(entry.get(), entry);
+            }
+        }
+        index.trim();
+        return new ReverseIndex<>(source, index);
+    }
+
+    private boolean isBound(RegistryObject<T, ? extends T> entry) {
+        return bindOnAdd || entry.asHolder().isBound();
+    }
+
+    /**
+     * Freezes the entries into a snapshot with an index sorted by ID, and delivers the entries bound since the last freeze to batch listeners. <br>
+     * If the loader binds entries later than when they are added, all entries added so far are considered bound.
+     */
+    @SuppressWarnings("unchecked")
+    public void freeze() {
+        final int size = log.claimed();
+        final Frozen<T> current = frozen;
+        if (current == null || current.view.size() != size) {
+            final List<RegistryObject<T, ? extends T>> entries = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                final RegistryObject<T, ? extends T> entry = log.get(i);
+                // A slot whose writer is still running makes the frozen entries stale right away, which is safe
+                if (entry != null) entries.add(entry);
+            }
+            final RegistryObject<T, ? extends T>[] sorted = entries.toArray(RegistryObject[]::new);
+            Arrays.sort(sorted, BY_ID);
+            // The sorted array only backs lookups, the view keeps the order of the log
+            frozen = new Frozen<>(sorted, Collections.unmodifiableList(entries));
+        }
+
+        if (!bindOnAdd) {
+            // Entries may have been bound since the index was built
+            reverse = null;
+            bound = size;
+        }
+        for (final Cursor<? super RegistryObject<T, ? extends T>> cursor : listeners.get()) {
+            deliver(cursor);
+        }
+        for (final Cursor<? super List<RegistryObject<T, ? extends T>>> cursor : batchListeners.get()) {
+            deliverBatch(cursor);
+        }
+    }
+
+    @Nullable
+    private Frozen<T> currentFrozen() {
+        final Frozen<T> current = frozen;
+        return current != null && current.view.size() == log.claimed() ? current : null;
+    }
+
+    private int boundLimit() {
+        return bindOnAdd ? log.claimed() : bound;
+    }
+
+    private void deliver(Cursor<? super RegistryObject<T, ? extends T>> cursor) {
+        final int limit = boundLimit();
+        int next;
+        while ((next = cursor.next.get()) < limit) {
+            final RegistryObject<T, ? extends T> entry = log.get(next);
+            if (entry == null) {
+                // The writer of the slot will deliver it once done
+                return;
+            }
+            if (cursor.next.compareAndSet(next, next + 1)) {
+                cursor.listener.accept(entry);
+            }
+        }
+    }
+
+    private void deliverBatch(Cursor<? super List<RegistryObject<T, ? extends T>>> cursor) {
+        final int limit = boundLimit();
+        int from;
+        while ((from = cursor.next.get()) < limit) {
+            final List<RegistryObject<T, ? extends T>> batch = new ArrayList<>(limit - from);
+            RegistryObject<T, ? extends T> entry;
+            while (from + batch.size() < limit && (entry = log.get(from + batch.size())) != null) {
+                batch.add(entry);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (cursor.next.compareAndSet(from, from + batch.size())) {
+                cursor.listener.accept(Collections.unmodifiableList(batch));
+                return;
+            }
+        }
+    }
+
+    private static <E> List<E> append(List<E> list, E element) {
+        final List<E> copy = new ArrayList<>(list.size() + 1);
+        copy.addAll(list);
+        copy.add(element);
+        return List.copyOf(copy);
+    }
+
+    /**
+     * A listener, and the index of the next entry to deliver to it.
+     */
+    private record Cursor<L>(Consumer<L> listener, AtomicInteger next) {
+        private Cursor(Consumer<L> listener) {
+            this(listener, new AtomicInteger());
+        }
+    }
+
+    private record ReverseIndex<T>(Frozen<T> source, Reference2ObjectOpenHashMap<T, RegistryObject<T, ? extends T>> entries) {
+    }
+
+    private record Frozen<T>(RegistryObject<T, ? extends T>[] sorted, List<RegistryObject<T, ? extends T>> view) {
+        @Nullable
+        RegistryObject<T, ? extends T> get(ResourceLocation id) {
+            int low = 0;
+            int high = sorted.length - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int comparison = sorted[middle].getId().compareTo(id);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return sorted[middle];
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.util;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Helpers for caching the raw numeric ID of a {@link com.matyrobbrt.registrationutils.RegistryObject}. <br>
+ * A cached ID is stored as a {@code long} packing the epoch it was computed in (high bits) and the ID (low bits).
+ * The epoch is bumped by the loader implementations whenever registry IDs are remapped, which invalidates all cached IDs at once.
+ */
+@ApiStatus.Internal
+public final class $RawIdCache {
+    /**
+     * The value of a cache that was never computed. Its epoch can only be reached after 2<sup>31</sup> remaps.
+     */
+    public static final long EMPTY = pack(Integer.MIN_VALUE, -1);
+
+    private static volatile int epoch;
+
+    private $RawIdCache() {
+    }
+
+    /**
+     * {@return the current epoch}
+     */
+    public static int epoch() {
+        return epoch;
+    }
+
+    /**
+     * Invalidates all cached IDs.
+     */
+    public static synchronized void invalidate() {
+        epoch++;
+    }
+
+    /**
+     * Packs an ID computed in the given epoch. The epoch should be read <b>before</b> computing the ID.
+     */
+    public static long pack(int epoch, int id) {
+        return ((long) epoch << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    /**
+     * {@return whether the {@code cached} value was computed in the current epoch}
+     */
+    public static boolean isValid(long cached) {
+        return (int) (cached >>> 32) == epoch;
+    }
+}
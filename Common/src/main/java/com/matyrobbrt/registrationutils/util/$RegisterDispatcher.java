@@ -0,0 +1,112 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.util;
+
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceKey;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The loader-independent part of a single register event and new registry event listener per mod bus, which routes
+ * the events only to the providers whose registry key matches. <br>
+ * Each register is attached to a private bus of its registry key instead of the mod bus,
+ * so a register event is only ever posted to the registers that care about it.
+ *
+ * @param <B> the type of the event buses
+ * @param <R> the type of the register event
+ * @param <N> the type of the new registry event
+ */
+@ApiStatus.Internal
+public abstract class $RegisterDispatcher<B, R, N> {
+    private final Map<ResourceKey<? extends Registry<?>>, Route<B>> routes = new ConcurrentHashMap<>();
+    private final List<Consumer<N>> registryCreators = new CopyOnWriteArrayList<>();
+
+    /**
+     * {@return a new private bus for the registers of a registry}
+     */
+    protected abstract B createBus();
+
+    /**
+     * Posts a register event to a private bus.
+     *
+     * @param bus   the bus
+     * @param event the event
+     */
+    protected abstract void post(B bus, R event);
+
+    /**
+     * {@return the key of the registry a register event is fired for}
+     *
+     * @param event the event
+     */
+    protected abstract ResourceKey<? extends Registry<?>> registryKey(R event);
+
+    /**
+     * Routes the register events of a registry to the private bus of the registry.
+     *
+     * @param registryKey       the key of the registry
+     * @param afterRegistration an action to run after the bus has received the event
+     * @return the private bus the register of the registry should be attached to
+     */
+    protected final B route(ResourceKey<? extends Registry<?>> registryKey, Runnable afterRegistration) {
+        final Route<B> route = routes.computeIfAbsent(registryKey, k -> new Route<>(createBus(), new CopyOnWriteArrayList<>()));
+        route.afterRegistration.add(afterRegistration);
+        return route.bus;
+    }
+
+    /**
+     * Adds a listener which will be invoked when registries are created.
+     *
+     * @param creator the listener
+     */
+    public final void addRegistryCreator(Consumer<N> creator) {
+        registryCreators.add(creator);
+    }
+
+    protected final void onRegister(R event) {
+        final Route<B> route = routes.get(registryKey(event));
+        if (route != null) {
+            post(route.bus, event);
+            route.afterRegistration.forEach(Runnable::run);
+        }
+    }
+
+    protected final void onNewRegistry(N event) {
+        registryCreators.forEach(creator -> creator.accept(event));
+    }
+
+    private record Route<B>(B bus, List<Runnable> afterRegistration) {
+    }
+}
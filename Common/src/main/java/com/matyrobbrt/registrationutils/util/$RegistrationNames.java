@@ -0,0 +1,75 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.util;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * The naming rules shared by the annotation processor, the runtime and the Gradle plugin. <br>
+ * The plugin compiles this very file into itself, so it must only depend on the JDK.
+ */
+@ApiStatus.Internal
+public final class $RegistrationNames {
+    /**
+     * The name of the registration manifest, which is located in the (relocated) package of the library.
+     */
+    public static final String REGISTRATION_MANIFEST = "registrations.manifest";
+
+    private $RegistrationNames() {
+    }
+
+    /**
+     * {@return the path of the manifest listing the holders generated by the registration annotation processor}
+     *
+     * @param libraryPackage the (relocated) package of the library
+     */
+    public static String generatedHoldersManifest(String libraryPackage) {
+        return "META-INF/regutils/" + libraryPackage + ".holders";
+    }
+
+    /**
+     * Converts the name of a factory method to the name of the object it creates, e.g. {@code myItem} to {@code my_item}.
+     *
+     * @param name the name of the method
+     * @return the name of the object
+     */
+    public static String toSnakeCase(String name) {
+        final StringBuilder builder = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) builder.append('_');
+                builder.append(Character.toLowerCase(c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.util;
+
+import com.google.common.collect.MapMaker;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.resources.ResourceKey;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the registry with a given key per {@link RegistryAccess} it was requested from. <br>
+ * Accesses are compared by identity and only weakly referenced, so a cache never keeps the registries of an unloaded level alive.
+ * The registry itself is strongly held by the entry, as it is reachable from its access anyway. <br>
+ * Multiple accesses can be cached at once, so the client and server threads of an integrated server do not evict each other's entry.
+ *
+ * @param <T> the type of the registry
+ */
+@ApiStatus.Internal
+public final class $RegistryAccessCache<T> {
+    private final ResourceKey<? extends Registry<T>> key;
+    private final ConcurrentMap<RegistryAccess, Registry<T>> registries = new MapMaker()
+            .weakKeys()
+            .concurrencyLevel(2)
+            .makeMap();
+
+    public $RegistryAccessCache(ResourceKey<? extends Registry<T>> key) {
+        this.key = key;
+    }
+
+    public Registry<T> get(RegistryAccess access) {
+        final Registry<T> registry = registries.get(access);
+        if (registry != null) {
+            return registry;
+        }
+        return registries.computeIfAbsent(access, acc -> acc.registryOrThrow(key));
+    }
+}
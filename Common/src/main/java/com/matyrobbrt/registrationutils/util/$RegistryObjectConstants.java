@@ -0,0 +1,88 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.util;
+
+import com.matyrobbrt.registrationutils.RegistryObject;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+
+/**
+ * Bootstrap for the {@code invokedynamic} call sites that the Gradle plugin emits in place of
+ * {@code STATIC_FIELD.get()} reads of {@code static final} {@link RegistryObject registry objects}. <br>
+ * The call site resolves the object through the registry object until it is bound, and then relinks itself to
+ * a constant target returning the object, which the JIT can fold like a real constant.
+ */
+@ApiStatus.Internal
+public final class $RegistryObjectConstants {
+    private static final MethodHandle RESOLVE;
+
+    static {
+        try {
+            RESOLVE = MethodHandles.lookup().findStatic($RegistryObjectConstants.class, "resolve",
+                    MethodType.methodType(Object.class, MutableCallSite.class, MethodHandle.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private $RegistryObjectConstants() {
+    }
+
+    /**
+     * Bootstraps a call site.
+     *
+     * @param lookup the lookup of the caller
+     * @param name   the name of the call site, unused
+     * @param type   the type of the call site, which takes no arguments and returns the object
+     * @param field  a getter of the static field holding the registry object
+     * @return the call site
+     */
+    public static CallSite bootstrap(MethodHandles.Lookup lookup, String name, MethodType type, MethodHandle field) {
+        // A ConstantCallSite cannot be relinked once bound, so a mutable call site is used instead.
+        // Mutable call sites whose target is a constant are folded by the JIT just the same, with a deoptimisation dependency
+        final MutableCallSite site = new MutableCallSite(type);
+        site.setTarget(MethodHandles.insertArguments(RESOLVE, 0, site, field).asType(type));
+        return site;
+    }
+
+    private static Object resolve(MutableCallSite site, MethodHandle field) throws Throwable {
+        final RegistryObject<?, ?> object = (RegistryObject<?, ?>) field.invoke();
+        // If the object is not bound yet this throws, exactly as a direct call would, and the call site stays unlinked
+        final Object value = object.get();
+        if (value != null) {
+            site.setTarget(MethodHandles.constant(Object.class, value).asType(site.type()));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.util;
+
+import com.matyrobbrt.registrationutils.registries.DatapackRegistry;
+import net.minecraft.Util;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.RegistrySetBuilder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Holds the {@link HolderLookup.Provider} shared by the {@link DatapackRegistry#bootstrapDataGenerator() default bootstrap generators}
+ * of all datapack registries. <br>
+ * The lookup is built once, from a single {@link RegistrySetBuilder} containing every known registry, and is rebuilt only if a registry
+ * is added after it has been requested.
+ */
+@ApiStatus.Internal
+public final class $SharedBootstrapLookup {
+    private static final List<DatapackRegistry<?>> REGISTRIES = new ArrayList<>();
+    private static CompletableFuture<HolderLookup.Provider> lookup;
+
+    public static synchronized void register(DatapackRegistry<?> registry) {
+        if (!REGISTRIES.contains(registry)) {
+            REGISTRIES.add(registry);
+            lookup = null;
+        }
+    }
+
+    public static synchronized CompletableFuture<HolderLookup.Provider> get() {
+        if (lookup == null) {
+            final List<DatapackRegistry<?>> registries = List.copyOf(REGISTRIES);
+            lookup = CompletableFuture.supplyAsync(() -> {
+                final RegistryAccess.Frozen access = RegistryAccess.fromRegistryOfRegistries(BuiltInRegistries.REGISTRY);
+                final RegistrySetBuilder builder = new RegistrySetBuilder();
+                registries.forEach(registry -> registry.addToSet(builder));
+                return builder.build(access);
+            }, Util.backgroundExecutor());
+        }
+        return lookup;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.util;
+
+import com.mojang.logging.LogUtils;
+import net.minecraft.resources.ResourceKey;
+import org.jetbrains.annotations.ApiStatus;
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * An optional cache of the amount of entries each mod registered to each registry during the previous launch,
+ * used to pre-size registry structures on the next launch and avoid rehashing them while they grow. <br>
+ * The cache is enabled with the {@value #PROPERTY} system property. It is written once registration ends,
+ * to a file specific to the (relocated) package of the library so that mods do not overwrite each other's counts.
+ */
+@ApiStatus.Internal
+public final class $WarmStart {
+    public static final String PROPERTY = "regutils.warmStart";
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final String SEPARATOR = "|";
+
+    private static @Nullable Path file;
+    private static volatile @Nullable Map<String, Integer> counts;
+
+    private $WarmStart() {
+    }
+
+    /**
+     * Initialises the cache. Called by the loader implementations before any provider is created.
+     *
+     * @param cacheDirectory the directory to store the cache in
+     */
+    public static synchronized void init(Path cacheDirectory) {
+        if (file != null || !Boolean.getBoolean(PROPERTY)) return;
+        file = cacheDirectory.resolve("regutils").resolve($WarmStart.class.getPackageName() + ".warmstart");
+    }
+
+    /**
+     * {@return the amount of entries registered to the registry during the previous launch, by all providers of this library, or 0 if unknown}
+     *
+     * @param registry the key of the registry
+     */
+    public static int expectedSize(ResourceKey<?> registry) {
+        final String suffix = SEPARATOR + registry.location();
+        int total = 0;
+        for (final Map.Entry<String, Integer> entry : counts().entrySet()) {
+            if (entry.getKey().endsWith(suffix)) {
+                total += entry.getValue();
+            }
+        }
+        return total;
+    }
+
+    static String key(String modId, ResourceKey<?> registry) {
+        return modId + SEPARATOR + registry.location();
+    }
+
+    private static Map<String, Integer> counts() {
+        Map<String, Integer> current = counts;
+        if (current == null) {
+            synchronized ($WarmStart.class) {
+                current = counts;
+                if (current == null) {
+                    current = read();
+                    counts = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Map<String, Integer> read() {
+        final Path path = file;
+        if (path == null || !Files.exists(path)) return Map.of();
+        final Properties properties = new Properties();
+        try (final Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+            final Map<String, Integer> read = new TreeMap<>();
+            properties.forEach((key, value) -> read.put((String) key, Integer.parseInt((String) value)));
+            return read;
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.warn("Could not read registration warm-start cache {}", path, e);
+            return Map.of();
+        }
+    }
+
+    /**
+     * Writes the amount of entries registered by each mod to each registry during this launch.
+     *
+     * @param registered the amount of entries, keyed by {@link #key(String, ResourceKey) mod ID and registry}
+     */
+    static void write(Map<String, Integer> registered) {
+        final Path path = file;
+        if (path == null) return;
+        final Properties properties = new Properties();
+        registered.forEach((key, count) -> properties.setProperty(key, String.valueOf(count)));
+        try {
+            Files.createDirectories(path.getParent());
+            try (final Writer writer = Files.newBufferedWriter(path)) {
+                properties.store(writer, "Registration warm-start cache. Entry counts per mod and registry");
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not write registration warm-start cache {}", path, e);
+        }
+    }
+}
@@ -28,12 +28,20 @@
 
 package com.matyrobbrt.registrationutils.util;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.matyrobbrt.registrationutils.registries.DatapackRegistry;
 import com.mojang.logging.LogUtils;
 import com.mojang.serialization.DynamicOps;
 import com.mojang.serialization.Encoder;
 import com.mojang.serialization.JsonOps;
 import net.minecraft.MethodsReturnNonnullByDefault;
+import net.minecraft.Util;
+import net.minecraft.core.Holder;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.Registry;
 import net.minecraft.data.CachedOutput;
@@ -44,14 +52,38 @@ import net.minecraft.resources.RegistryOps;
 import net.minecraft.resources.ResourceKey;
 import org.slf4j.Logger;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A {@link DataProvider} used to generate bootstrap entries of all registries that match the given {@code predicate}.
+ * <p>
+ * By default, every element is encoded and written as soon as the registry lookup is available. Registries with a large
+ * amount of generated entries should use {@link #withParallelism(int)}, which splits the elements into chunks that are encoded
+ * on the {@link Util#backgroundExecutor() background executor}, with a bounded amount of chunks in flight at once. <br>
+ * Generators that are run often with mostly identical data can use {@link #withOutputCache(Fingerprint)} to skip elements that did not change.
  */
 @ParametersAreNonnullByDefault
 @MethodsReturnNonnullByDefault
@@ -60,41 +92,304 @@ public class DatapackRegistryGenerator implements DataProvider {
     private final PackOutput output;
     private final CompletableFuture<HolderLookup.Provider> registries;
     private final Predicate<RegistryDataLoader.RegistryData<?>> predicate;
+    private final @Nullable Set<ResourceKey<? extends Registry<?>>> keys;
+
+    private static volatile @Nullable RegistryDataIndex dataIndex;
+
+    /**
+     * The default amount of elements encoded by a single task, when running in {@link #withParallelism(int) parallel mode}.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private int parallelism;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private @Nullable Fingerprint fingerprint;
 
     public DatapackRegistryGenerator(PackOutput output, CompletableFuture<HolderLookup.Provider> lookup, Predicate<RegistryDataLoader.RegistryData<?>> predicate) {
         this.registries = lookup;
         this.output = output;
         this.predicate = predicate;
+        this.keys = null;
+    }
+
+    /**
+     * Creates a generator for the bootstrap entries of the given {@code registries}. <br>
+     * Unlike the {@link #DatapackRegistryGenerator(PackOutput, CompletableFuture, Predicate) predicate-based} constructor, the registry data of the
+     * registries is resolved through a key index, which is shared between generators.
+     *
+     * @param output     the pack output
+     * @param lookup     the provider to generate entries from
+     * @param registries the registries to generate
+     * @see DatapackRegistry#combinedDataGenerator(CompletableFuture, Collection)
+     */
+    public DatapackRegistryGenerator(PackOutput output, CompletableFuture<HolderLookup.Provider> lookup, Collection<? extends DatapackRegistry<?>> registries) {
+        this.registries = lookup;
+        this.output = output;
+        final Set<ResourceKey<? extends Registry<?>>> keys = new LinkedHashSet<>();
+        registries.forEach(registry -> keys.add(registry.key()));
+        this.keys = Collections.unmodifiableSet(keys);
+        this.predicate = data -> this.keys.contains(data.key());
+    }
+
+    /**
+     * Makes this generator encode elements in chunks of {@value #DEFAULT_CHUNK_SIZE}, with at most {@code parallelism} chunks
+     * being encoded or written at once.
+     *
+     * @param parallelism the maximum amount of chunks in flight. A value of {@code 0} or less disables the parallel mode
+     * @return the generator instance
+     * @see #withParallelism(int, int)
+     */
+    public DatapackRegistryGenerator withParallelism(int parallelism) {
+        return withParallelism(parallelism, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Makes this generator encode elements in chunks of {@code chunkSize}, with at most {@code parallelism} chunks
+     * being encoded or written at once. <br>
+     * A chunk is only considered done once all of its elements have been written, so the amount of encoded elements
+     * kept in memory is bound by {@code parallelism * chunkSize}.
+     *
+     * @param parallelism the maximum amount of chunks in flight. A value of {@code 0} or less disables the parallel mode
+     * @param chunkSize   the amount of elements encoded by a single task
+     * @return the generator instance
+     */
+    public DatapackRegistryGenerator withParallelism(int parallelism, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive, was " + chunkSize);
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Makes this generator keep an index of the {@link Fingerprint fingerprints} of the elements it wrote.
+     * Elements whose fingerprint did not change since the last run, and whose file still exists, are neither encoded nor written again.
+     *
+     * @param fingerprint the function computing the fingerprint of an element
+     * @return the generator instance
+     * @see Fingerprint#versionStamp(String)
+     */
+    public DatapackRegistryGenerator withOutputCache(Fingerprint fingerprint) {
+        this.fingerprint = fingerprint;
+        return this;
     }
 
     @Override
     public CompletableFuture<?> run(CachedOutput output) {
         return this.registries.thenCompose((lookup) -> {
             final DynamicOps<JsonElement> ops = RegistryOps.create(JsonOps.INSTANCE, lookup);
-            return CompletableFuture.allOf(RegistryDataLoader.WORLDGEN_REGISTRIES.stream()
-                    .filter(predicate)
-                    .flatMap(data -> this.dumpRegistryCap(output, lookup, ops, data).stream())
+            final Lanes lanes = parallelism > 0 ? new Lanes(parallelism) : null;
+            return CompletableFuture.allOf(selectRegistries()
+                    .flatMap(data -> this.dumpRegistryCap(output, lookup, ops, data, lanes).stream())
                     .toArray(CompletableFuture[]::new));
         });
     }
 
-    private <T> Optional<CompletableFuture<?>> dumpRegistryCap(CachedOutput output, HolderLookup.Provider lookup, DynamicOps<JsonElement> ops, RegistryDataLoader.RegistryData<T> data) {
-        final ResourceKey<? extends Registry<T>> registryKey = data.key();
-        return lookup.lookup(registryKey).map((registry) -> {
-            final PackOutput.PathProvider pathProvider = this.output.createPathProvider(PackOutput.Target.DATA_PACK, registryKey.location().getPath());
-            return CompletableFuture.allOf(registry.listElements().map((value) -> dumpValue(pathProvider.json(value.key().location()), output, ops, data.elementCodec(), value.value()))
+    private Stream<RegistryDataLoader.RegistryData<?>> selectRegistries() {
+        if (keys == null) {
+            return RegistryDataLoader.WORLDGEN_REGISTRIES.stream().filter(predicate);
+        }
+        final Map<ResourceKey<? extends Registry<?>>, RegistryDataLoader.RegistryData<?>> index = RegistryDataIndex.get().byKey;
+        return keys.stream().<RegistryDataLoader.RegistryData<?>>map(index::get).filter(Objects::nonNull);
+    }
+
+    private <T> Optional<CompletableFuture<?>> dumpRegistryCap(CachedOutput output, HolderLookup.Provider lookup, DynamicOps<JsonElement> ops, RegistryDataLoader.RegistryData<T> data, @Nullable Lanes lanes) {
+        return lookup.lookup(data.key()).map((registry) -> dumpRegistry(output, ops, data.key(), data.elementCodec(), registry.listElements().toList(), lanes));
+    }
+
+    @VisibleForTesting
+    <T> CompletableFuture<?> dumpRegistry(CachedOutput output, DynamicOps<JsonElement> ops, ResourceKey<? extends Registry<T>> registryKey, Encoder<T> codec, List<Holder.Reference<T>> elements, @Nullable Lanes lanes) {
+        final PackOutput.PathProvider pathProvider = this.output.createPathProvider(PackOutput.Target.DATA_PACK, registryKey.location().getPath());
+        final OutputIndex index = fingerprint == null ? null : OutputIndex.load(fingerprint, this.output.getOutputFolder()
+                .resolve(".cache").resolve("regutils").resolve(registryKey.location().getNamespace()).resolve(registryKey.location().getPath() + ".json"));
+        final CompletableFuture<?> future;
+        if (lanes != null) {
+            final List<CompletableFuture<?>> chunks = new ArrayList<>();
+            for (int start = 0; start < elements.size(); start += chunkSize) {
+                final List<Holder.Reference<T>> chunk = elements.subList(start, Math.min(start + chunkSize, elements.size()));
+                chunks.add(lanes.submit(() -> dumpChunk(pathProvider, output, ops, codec, chunk, index)));
+            }
+            future = CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new));
+        } else {
+            future = CompletableFuture.allOf(elements.stream().map((value) -> dumpElement(pathProvider, output, ops, codec, value, index))
                     .toArray(CompletableFuture[]::new));
-        });
+        }
+        return index == null ? future : future.thenRun(() -> index.save(output));
+    }
+
+    private static <E> CompletableFuture<Void> dumpChunk(PackOutput.PathProvider pathProvider, CachedOutput output, DynamicOps<JsonElement> ops, Encoder<E> codec, List<Holder.Reference<E>> chunk, @Nullable OutputIndex index) {
+        final CompletableFuture<?>[] futures = new CompletableFuture[chunk.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = dumpElement(pathProvider, output, ops, codec, chunk.get(i), index);
+        }
+        return CompletableFuture.allOf(futures);
     }
 
-    private static <E> CompletableFuture<?> dumpValue(Path path, CachedOutput output, DynamicOps<JsonElement> ops, Encoder<E> codec, E value) {
+    private static <E> CompletableFuture<?> dumpElement(PackOutput.PathProvider pathProvider, CachedOutput output, DynamicOps<JsonElement> ops, Encoder<E> codec, Holder.Reference<E> element, @Nullable OutputIndex index) {
+        final Path path = pathProvider.json(element.key().location());
+        if (index == null) {
+            return dumpValue(path, output, ops, codec, element.value(), null);
+        }
+        final String print = index.fingerprint.compute(element.key(), element.value());
+        if (print == null) {
+            return dumpValue(path, output, ops, codec, element.value(), null);
+        }
+        final String id = element.key().location().toString();
+        if (index.isUnchanged(id, print, path)) {
+            return CompletableFuture.runAsync(() -> index.reuse(output, path, id, print), Util.backgroundExecutor());
+        }
+        // Only record the fingerprint once the element was written, so that a failed encode is retried on the next run
+        return dumpValue(path, output, ops, codec, element.value(), () -> index.record(id, print));
+    }
+
+    private static <E> CompletableFuture<?> dumpValue(Path path, CachedOutput output, DynamicOps<JsonElement> ops, Encoder<E> codec, E value, @Nullable Runnable onWritten) {
         final Optional<JsonElement> encoded = codec.encodeStart(ops, value)
                 .resultOrPartial((error) -> LOGGER.error("Couldn't serialize element {}: {}", path, error));
-        return encoded.isPresent() ? DataProvider.saveStable(output, encoded.get(), path) : CompletableFuture.completedFuture(null);
+        if (encoded.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final CompletableFuture<?> saved = DataProvider.saveStable(output, encoded.get(), path);
+        return onWritten == null ? saved : saved.thenRun(onWritten);
+    }
+
+    /**
+     * Computes the fingerprint of a registry element, used by the {@link #withOutputCache(Fingerprint) output cache}
+     * in order to determine if an element has changed since the last run. <br>
+     * Fingerprints must be stable between runs: if two runs compute the same fingerprint for the same key, the element
+     * is assumed to encode to the same json.
+     */
+    @FunctionalInterface
+    public interface Fingerprint {
+        /**
+         * Computes the fingerprint of an element.
+         *
+         * @param key   the key of the element
+         * @param value the element
+         * @return the fingerprint of the element, or {@code null} if the element should always be encoded
+         */
+        @Nullable
+        String compute(ResourceKey<?> key, Object value);
+
+        /**
+         * {@return a fingerprint that considers all elements unchanged as long as the {@code stamp} is the same}
+         * The stamp should be changed whenever the bootstrap or the codec of the registry changes.
+         *
+         * @param stamp the version stamp
+         */
+        static Fingerprint versionStamp(String stamp) {
+            return (key, value) -> stamp;
+        }
+    }
+
+    /**
+     * A per-registry index of the fingerprints elements had when they were last written.
+     */
+    private static final class OutputIndex {
+        private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+        private final Fingerprint fingerprint;
+        private final Path file;
+        private final Map<String, String> previous;
+        private final Map<String, String> current = new ConcurrentHashMap<>();
+
+        private OutputIndex(Fingerprint fingerprint, Path file, Map<String, String> previous) {
+            this.fingerprint = fingerprint;
+            this.file = file;
+            this.previous = previous;
+        }
+
+        private static OutputIndex load(Fingerprint fingerprint, Path file) {
+            final Map<String, String> previous = new HashMap<>();
+            if (Files.isRegularFile(file)) {
+                try {
+                    JsonParser.parseString(Files.readString(file)).getAsJsonObject()
+                            .entrySet().forEach(entry -> previous.put(entry.getKey(), entry.getValue().getAsString()));
+                } catch (Exception exception) {
+                    LOGGER.warn("Couldn't read output index {}, all elements will be encoded: ", file, exception);
+                    previous.clear();
+                }
+            }
+            return new OutputIndex(fingerprint, file, previous);
+        }
+
+        private boolean isUnchanged(String id, String print, Path path) {
+            return print.equals(previous.get(id)) && Files.isRegularFile(path);
+        }
+
+        private void record(String id, String print) {
+            current.put(id, print);
+        }
+
+        @SuppressWarnings({"deprecation", "UnstableApiUsage"})
+        private void reuse(CachedOutput output, Path path, String id, String print) {
+            try {
+                // Writing the same contents with the same hash will not touch the file, but marks it as generated in this run
+                final byte[] contents = Files.readAllBytes(path);
+                output.writeIfNeeded(path, contents, Hashing.sha1().hashBytes(contents));
+                record(id, print);
+            } catch (IOException exception) {
+                LOGGER.error("Failed to reuse file {}", path, exception);
+            }
+        }
+
+        @SuppressWarnings({"deprecation", "UnstableApiUsage"})
+        private void save(CachedOutput output) {
+            try {
+                // The index must be written through the output, as the cache purges every untracked file of the output folder at the end of the run
+                final byte[] contents = GSON.toJson(new TreeMap<>(current)).getBytes(StandardCharsets.UTF_8);
+                output.writeIfNeeded(file, contents, Hashing.sha1().hashBytes(contents));
+            } catch (IOException exception) {
+                LOGGER.error("Failed to save output index {}", file, exception);
+            }
+        }
+    }
+
+    /**
+     * An index of {@link RegistryDataLoader#WORLDGEN_REGISTRIES} by key. Loaders may replace or append to that list while mods
+     * are being initialised, so the index is rebuilt if the list it was built from has changed.
+     */
+    private record RegistryDataIndex(List<RegistryDataLoader.RegistryData<?>> source, int size, Map<ResourceKey<? extends Registry<?>>, RegistryDataLoader.RegistryData<?>> byKey) {
+        private static RegistryDataIndex get() {
+            final List<RegistryDataLoader.RegistryData<?>> source = RegistryDataLoader.WORLDGEN_REGISTRIES;
+            RegistryDataIndex index = dataIndex;
+            if (index == null || index.source != source || index.size != source.size()) {
+                final Map<ResourceKey<? extends Registry<?>>, RegistryDataLoader.RegistryData<?>> byKey = new HashMap<>();
+                source.forEach(data -> byKey.put(data.key(), data));
+                dataIndex = index = new RegistryDataIndex(source, source.size(), byKey);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * A fixed amount of sequential lanes chunks are spread across. A chunk only starts once the chunk
+     * submitted before it on the same lane has been fully written, which bounds the amount of chunks in flight
+     * without blocking the submitting thread.
+     */
+    private static final class Lanes {
+        private final CompletableFuture<?>[] tails;
+        private int next;
+
+        private Lanes(int size) {
+            this.tails = new CompletableFuture[size];
+            Arrays.fill(tails, CompletableFuture.completedFuture(null));
+        }
+
+        private synchronized CompletableFuture<Void> submit(Supplier<CompletableFuture<Void>> task) {
+            final int lane = next;
+            next = (next + 1) % tails.length;
+            final CompletableFuture<Void> future = tails[lane].thenComposeAsync(ignored -> task.get(), Util.backgroundExecutor());
+            tails[lane] = future;
+            return future;
+        }
     }
 
     @Override
     public String getName() {
+        if (keys != null) {
+            return "Registries " + keys.stream().map(key -> key.location().toString()).collect(Collectors.joining(", "));
+        }
         return predicate + " registry";
     }
 }
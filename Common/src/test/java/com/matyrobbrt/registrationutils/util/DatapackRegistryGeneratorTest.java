@@ -0,0 +1,119 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.util;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import com.mojang.serialization.Lifecycle;
+import net.minecraft.core.Holder;
+import net.minecraft.core.MappedRegistry;
+import net.minecraft.core.Registry;
+import net.minecraft.data.CachedOutput;
+import net.minecraft.data.PackOutput;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link DatapackRegistryGenerator} repeatedly over the same output folder, with the {@link DatapackRegistryGenerator#withOutputCache(DatapackRegistryGenerator.Fingerprint) output cache}.
+ */
+class DatapackRegistryGeneratorTest {
+    private static final ResourceKey<Registry<String>> REGISTRY = ResourceKey.createRegistryKey(new ResourceLocation("regutils", "test"));
+    private static final List<String> NAMES = List.of("first", "second", "third");
+
+    @TempDir
+    Path folder;
+
+    private final AtomicInteger encodes = new AtomicInteger();
+    private final Codec<String> codec = Codec.STRING.xmap(value -> value, value -> {
+        encodes.incrementAndGet();
+        return value;
+    });
+
+    @Test
+    void secondRunSkipsTheEncode() {
+        final Set<Path> first = run("1");
+        assertEquals(NAMES.size(), encodes.getAndSet(0), "the first run did not encode every element");
+        assertTrue(first.contains(indexFile()), "the index was not written through the output");
+
+        final Set<Path> second = run("1");
+        assertEquals(0, encodes.get(), "the second run encoded unchanged elements");
+        // Every file of the second run must be tracked by the output, otherwise the cache purges it as stale at the end of the run
+        assertEquals(first, second);
+        for (final Path path : second) {
+            assertTrue(Files.isRegularFile(path), path + " is missing");
+        }
+    }
+
+    @Test
+    void changedFingerprintsAreEncodedAgain() {
+        run("1");
+        encodes.set(0);
+        run("2");
+        assertEquals(NAMES.size(), encodes.get(), "elements with a new fingerprint were not encoded");
+    }
+
+    private Set<Path> run(String stamp) {
+        final Set<Path> tracked = ConcurrentHashMap.newKeySet();
+        final CachedOutput output = (path, contents, hash) -> {
+            tracked.add(path);
+            Files.createDirectories(path.getParent());
+            Files.write(path, contents);
+        };
+        new DatapackRegistryGenerator(new PackOutput(folder), CompletableFuture.completedFuture(null), data -> false)
+                .withOutputCache(DatapackRegistryGenerator.Fingerprint.versionStamp(stamp))
+                .dumpRegistry(output, JsonOps.INSTANCE, REGISTRY, codec, elements(), null)
+                .join();
+        return tracked;
+    }
+
+    private Path indexFile() {
+        return folder.resolve(".cache").resolve("regutils").resolve("regutils").resolve("test.json");
+    }
+
+    private static List<Holder.Reference<String>> elements() {
+        final MappedRegistry<String> registry = new MappedRegistry<>(REGISTRY, Lifecycle.stable());
+        for (final String name : NAMES) {
+            Registry.register(registry, new ResourceLocation("regutils", name), name);
+        }
+        return registry.holders().toList();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.util;
+
+import com.matyrobbrt.registrationutils.RegistryObject;
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Hammers {@link $ProviderEntries} with registrations from many threads, while listeners are added and entries are frozen concurrently.
+ */
+class ProviderEntriesStressTest {
+    private static final ResourceKey<Registry<Object>> REGISTRY = ResourceKey.createRegistryKey(new ResourceLocation("regutils", "test"));
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final int PER_THREAD = 20_000;
+
+    @Test
+    void noEntriesAreLostOrDeliveredTwice() throws Exception {
+        for (final boolean bindOnAdd : new boolean[] {true, false}) {
+            final $ProviderEntries<Object> entries = new $ProviderEntries<>(bindOnAdd, "regutils", REGISTRY);
+            final Set<Object> seen = ConcurrentHashMap.newKeySet();
+            final Set<Object> batched = ConcurrentHashMap.newKeySet();
+            final AtomicInteger duplicates = new AtomicInteger();
+
+            run(THREADS, thread -> {
+                for (int i = 0; i < PER_THREAD; i++) {
+                    entries.add(new Entry(thread, i));
+                    if (i % 5_000 == 0) {
+                        entries.freeze();
+                    }
+                    if (thread == 0 && i == PER_THREAD / 2) {
+                        entries.addListener(entry -> {
+                            if (!seen.add(entry)) duplicates.incrementAndGet();
+                        });
+                        entries.addBatchListener(batch -> batch.forEach(entry -> {
+                            if (!batched.add(entry)) duplicates.incrementAndGet();
+                        }));
+                    }
+                }
+            });
+            entries.freeze();
+
+            final int expected = THREADS * PER_THREAD;
+            assertEquals(expected, entries.view().size(), "entries were lost");
+            assertEquals(expected, seen.size(), "listener missed entries");
+            assertEquals(expected, batched.size(), "batch listener missed entries");
+            assertEquals(0, duplicates.get(), "entries were delivered twice");
+
+            final Entry entry = (Entry) entries.get(new ResourceLocation("regutils", "3_42"));
+            assertEquals(new ResourceLocation("regutils", "3_42"), entry.getId());
+            assertSame(entry, entries.find(entry.get()));
+        }
+    }
+
+    @Test
+    void frozenEntriesKeepRegistrationOrder() {
+        final $ProviderEntries<Object> entries = new $ProviderEntries<>(true, "regutils", REGISTRY);
+        final List<Entry> registered = new ArrayList<>();
+        // Register in an order which is not the order of the IDs
+        for (int i = 1_000; i > 0; i--) {
+            final Entry entry = new Entry(i % 7, i);
+            registered.add(entry);
+            entries.add(entry);
+        }
+        entries.freeze();
+
+        assertEquals(registered, List.copyOf(entries.view()), "freezing changed the iteration order");
+        for (final Entry entry : registered) {
+            assertSame(entry, entries.get(entry.getId()));
+        }
+    }
+
+    private static void run(int threads, ThreadTask task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                final int id = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(id);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread);
+    }
+
+    private record Entry(ResourceKey<Object> getResourceKey) implements RegistryObject<Object, Object> {
+        private Entry(int thread, int index) {
+            this(ResourceKey.create(REGISTRY, new ResourceLocation("regutils", thread + "_" + index)));
+        }
+
+        @Override
+        public ResourceLocation getId() {
+            return getResourceKey.location();
+        }
+
+        @Override
+        public Object get() {
+            return this;
+        }
+
+        @Override
+        public Holder<Object> asHolder() {
+            return Holder.direct(this);
+        }
+    }
+}
@@ -32,6 +32,8 @@ import com.google.auto.service.AutoService;
 import com.google.common.collect.ImmutableMap;
 import com.matyrobbrt.registrationutils.registries.DatapackRegistry;
 import com.matyrobbrt.registrationutils.registries.DatapackRegistryBuilder;
+import com.matyrobbrt.registrationutils.util.$RegistryAccessCache;
+import com.matyrobbrt.registrationutils.util.$SharedBootstrapLookup;
 import com.matyrobbrt.registrationutils.util.DatapackRegistryGenerator;
 import com.mojang.serialization.Codec;
 import net.fabricmc.fabric.api.event.registry.DynamicRegistries;
@@ -55,12 +57,12 @@ import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 @ParametersAreNonnullByDefault
@@ -74,7 +76,7 @@ public class FabricDatapackRegistryBuilder<T> implements DatapackRegistryBuilder
     private static final long offset$NETWORKABLE_REGISTRIES;
     private static final MethodHandle new$NetworkedRegistryData;
 
-    public static final Set<ResourceLocation> OWNED_REGISTRIES = new HashSet<>();
+    public static final Set<ResourceLocation> OWNED_REGISTRIES = ConcurrentHashMap.newKeySet();
 
     static {
         try {
@@ -166,7 +168,9 @@ public class FabricDatapackRegistryBuilder<T> implements DatapackRegistryBuilder
             }
         }
 
-        return new DatapackRegistry<>() {
+        final DatapackRegistry<T> registry = new DatapackRegistry<>() {
+            private final $RegistryAccessCache<T> cache = new $RegistryAccessCache<>(key);
+
             @Override
             public ResourceKey<Registry<T>> key() {
                 return key;
@@ -174,7 +178,7 @@ public class FabricDatapackRegistryBuilder<T> implements DatapackRegistryBuilder
 
             @Override
             public DataProvider.Factory<DataProvider> bootstrapDataGenerator(CompletableFuture<HolderLookup.Provider> lookupProvider) {
-                return packOutput -> new DatapackRegistryGenerator(packOutput, lookupProvider, registryData -> registryData.key() == key());
+                return packOutput -> new DatapackRegistryGenerator(packOutput, lookupProvider, List.of(this));
             }
 
             @Override
@@ -184,9 +188,11 @@ public class FabricDatapackRegistryBuilder<T> implements DatapackRegistryBuilder
 
             @Override
             public Registry<T> get(RegistryAccess registryAccess) {
-                return registryAccess.registryOrThrow(key);
+                return cache.get(registryAccess);
             }
         };
+        $SharedBootstrapLookup.register(registry);
+        return registry;
     }
 
     private void registerWithFAPI() {
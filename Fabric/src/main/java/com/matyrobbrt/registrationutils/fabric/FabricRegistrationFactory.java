@@ -32,15 +32,28 @@ import com.google.auto.service.AutoService;
 import com.google.common.base.Suppliers;
 import com.matyrobbrt.registrationutils.RegistrationProvider;
 import com.matyrobbrt.registrationutils.RegistryObject;
+import com.matyrobbrt.registrationutils.fabric.mixin.MappedRegistryAccessor;
 import com.matyrobbrt.registrationutils.registries.RegistryBuilder;
 import com.matyrobbrt.registrationutils.registries.RegistryFeatureType;
+import com.matyrobbrt.registrationutils.registries.TagBitSets;
 import com.matyrobbrt.registrationutils.specialised.BlockRegistrationProvider;
 import com.matyrobbrt.registrationutils.specialised.BlockRegistryObject;
 import com.matyrobbrt.registrationutils.specialised.ItemRegistrationProvider;
 import com.matyrobbrt.registrationutils.specialised.ItemRegistryObject;
+import com.matyrobbrt.registrationutils.util.$FeatureSet;
+import com.matyrobbrt.registrationutils.util.$ProviderEntries;
+import com.matyrobbrt.registrationutils.util.$RawIdCache;
+import com.matyrobbrt.registrationutils.util.$WarmStart;
 import com.mojang.serialization.Lifecycle;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.registry.FabricRegistryBuilder;
 import net.fabricmc.fabric.api.event.registry.RegistryAttribute;
+import net.fabricmc.fabric.api.event.registry.RegistryIdRemapCallback;
+import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.core.DefaultedMappedRegistry;
 import net.minecraft.core.Holder;
 import net.minecraft.core.MappedRegistry;
@@ -48,21 +61,34 @@ import net.minecraft.core.Registry;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.level.block.Block;
 import org.jetbrains.annotations.ApiStatus;
 
+import javax.annotation.Nullable;
+
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 @AutoService(RegistrationProvider.Factory.class)
 public class FabricRegistrationFactory implements RegistrationProvider.Factory {
 
+    public FabricRegistrationFactory() {
+        $WarmStart.init(FabricLoader.getInstance().getGameDir().resolve(".cache"));
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> TagBitSets.rebuildAll());
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> $ProviderEntries.freezeAll());
+        if (!isDedicatedServer()) {
+            // A client might never start a server, so providers are also frozen, and batches delivered, once it has started
+            FabricClientHooks.register();
+        }
+    }
+
     @Override
     public <T> RegistrationProvider<T> create(ResourceKey<? extends Registry<T>> resourceKey, String modId) {
         return new Provider<>(modId, resourceKey);
@@ -83,6 +109,11 @@ public class FabricRegistrationFactory implements RegistrationProvider.Factory {
         return new BlockProvider(modId);
     }
 
+    @Override
+    public boolean isDedicatedServer() {
+        return FabricLoader.getInstance().getEnvironmentType() == EnvType.SERVER;
+    }
+
     private static class ItemProvider extends Provider<Item> implements ItemRegistrationProvider {
 
         private ItemProvider(String modId) {
@@ -91,22 +122,21 @@ public class FabricRegistrationFactory implements RegistrationProvider.Factory {
 
         @Override
         public <I extends Item> ItemRegistryObject<I> register(String name, Supplier<? extends I> supplier) {
-            final var rl = new ResourceLocation(modId, name);
-            return create(rl, Registry.register(registry.get(), rl, supplier.get()));
+            final ResourceKey<Item> key = createKey(name);
+            return create(key, registerValue(key, supplier.get()));
         }
 
         @Override
-        @SuppressWarnings("unchecked")
-        public <I extends Item> ItemRegistryObject<I> create(ResourceLocation rl, I obj) {
-            final var ro = new ItemRO<>(obj, rl);
+        protected <I extends Item> ItemRegistryObject<I> create(ResourceKey<Item> key, I obj) {
+            final var ro = new ItemRO<>(obj, key);
             entries.add(ro);
             return ro;
         }
 
         private class ItemRO<I extends Item> extends RO<I> implements ItemRegistryObject<I> {
 
-            protected ItemRO(I obj, ResourceLocation rl) {
-                super(obj, rl);
+            protected ItemRO(I obj, ResourceKey<Item> key) {
+                super(obj, key);
             }
         }
     }
@@ -119,21 +149,21 @@ public class FabricRegistrationFactory implements RegistrationProvider.Factory {
 
         @Override
         public <B extends Block> BlockRegistryObject<B> register(String name, Supplier<? extends B> supplier) {
-            final var rl = new ResourceLocation(modId, name);
-            return create(rl, Registry.register(registry.get(), rl, supplier.get()));
+            final ResourceKey<Block> key = createKey(name);
+            return create(key, registerValue(key, supplier.get()));
         }
 
         @Override
-        public <B extends Block> BlockRegistryObject<B> create(ResourceLocation rl, B obj) {
-            final var ro = new BlockRO<>(obj, rl);
+        protected <B extends Block> BlockRegistryObject<B> create(ResourceKey<Block> key, B obj) {
+            final var ro = new BlockRO<>(obj, key);
             entries.add(ro);
             return ro;
         }
 
         private class BlockRO<B extends Block> extends RO<B> implements BlockRegistryObject<B> {
 
-            protected BlockRO(B obj, ResourceLocation rl) {
-                super(obj, rl);
+            protected BlockRO(B obj, ResourceKey<Block> key) {
+                super(obj, key);
             }
         }
     }
@@ -143,8 +173,10 @@ public class FabricRegistrationFactory implements RegistrationProvider.Factory {
         protected final Supplier<Registry<T>> registry;
         private final ResourceKey<? extends Registry<T>> registryKey;
 
-        protected final Set<RegistryObject<T, ? extends T>> entries = new HashSet<>();
-        private final Set<RegistryObject<T, ? extends T>> entriesView = Collections.unmodifiableSet(entries);
+        protected final $ProviderEntries<T> entries;
+        private final AtomicBoolean listensForRemaps = new AtomicBoolean();
+        private @Nullable TagBitSets<T> tagBitSets;
+        private int tagBitSetsGeneration = -1;
 
         @SuppressWarnings({"unchecked"})
         private Provider(String modId, ResourceKey<? extends Registry<T>> key) {
@@ -158,12 +190,14 @@ public class FabricRegistrationFactory implements RegistrationProvider.Factory {
                 return (Registry<T>) reg;
             });
             this.registryKey = key;
+            this.entries = new $ProviderEntries<>(true, modId, key);
         }
 
         private Provider(String modId, Registry<T> registry) {
             this.modId = modId;
             this.registry = Suppliers.ofInstance(registry);
             this.registryKey = registry.key();
+            this.entries = new $ProviderEntries<>(true, modId, registryKey);
         }
 
         @Override
@@ -178,27 +212,67 @@ public class FabricRegistrationFactory implements RegistrationProvider.Factory {
 
         @Override
         public <I extends T> RegistryObject<T, I> register(String name, Supplier<? extends I> supplier) {
-            final var rl = new ResourceLocation(modId, name);
-            return create(rl, Registry.register(registry.get(), rl, supplier.get()));
+            final ResourceKey<T> key = createKey(name);
+            return create(key, registerValue(key, supplier.get()));
+        }
+
+        /**
+         * Creates the key of an object, which is then used both for registering the object and by its wrapper,
+         * so that only one key needs to be interned per object.
+         */
+        protected ResourceKey<T> createKey(String name) {
+            return ResourceKey.create(registryKey, new ResourceLocation(modId, name));
+        }
+
+        protected <I extends T> I registerValue(ResourceKey<T> key, I value) {
+            final Registry<T> reg = registry.get();
+            // Registries are not thread-safe, but mods may register from multiple threads.
+            // This only excludes the providers of this library from each other, other code registering into the same registry is not synchronized
+            synchronized (reg) {
+                return Registry.register(reg, key, value);
+            }
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         public <I extends T> RegistryObject<T, I> create(ResourceLocation rl, I obj) {
-            final var ro = new RO<>(obj, rl);
+            return create(ResourceKey.create(registryKey, rl), obj);
+        }
+
+        protected <I extends T> RegistryObject<T, I> create(ResourceKey<T> key, I obj) {
+            final var ro = new RO<>(obj, key);
             entries.add(ro);
             return ro;
         }
 
+        private void listenForRemaps() {
+            if (listensForRemaps.compareAndSet(false, true)) {
+                RegistryIdRemapCallback.event(registry.get()).register(state -> $RawIdCache.invalidate());
+            }
+        }
+
+        @Nullable
+        private TagBitSets<T> tagBitSets() {
+            TagBitSets<T> bitSets = tagBitSets;
+            if (bitSets == null) {
+                // Most registries do not have bitsets, so their absence is cached until new bitsets are created
+                final int generation = TagBitSets.generation();
+                if (generation != tagBitSetsGeneration) {
+                    tagBitSets = bitSets = TagBitSets.find(getRegistryKey());
+                    tagBitSetsGeneration = generation;
+                }
+            }
+            return bitSets;
+        }
+
         protected class RO<I extends T> implements RegistryObject<T, I> {
             private final I obj;
-            private final ResourceLocation rl;
             final ResourceKey<T> key;
+            private volatile long rawId = $RawIdCache.EMPTY;
 
-            protected RO(I obj, ResourceLocation rl) {
+            protected RO(I obj, ResourceKey<T> key) {
                 this.obj = obj;
-                this.rl = rl;
-                this.key = ResourceKey.create(getRegistryKey(), rl);
+                this.key = key;
+                listenForRemaps();
             }
 
             @Override
@@ -208,7 +282,7 @@ public class FabricRegistrationFactory implements RegistrationProvider.Factory {
 
             @Override
             public ResourceLocation getId() {
-                return rl;
+                return key.location();
             }
 
             @Override
@@ -220,11 +294,51 @@ public class FabricRegistrationFactory implements RegistrationProvider.Factory {
             public Holder<T> asHolder() {
                 return registry.get().getHolderOrThrow(this.key);
             }
+
+            @Override
+            public int getRawId() {
+                final long cached = rawId;
+                if ($RawIdCache.isValid(cached)) {
+                    return (int) cached;
+                }
+                final int epoch = $RawIdCache.epoch();
+                final int id = registry.get().getId(obj);
+                rawId = $RawIdCache.pack(epoch, id);
+                return id;
+            }
+
+            @Override
+            public boolean is(TagKey<T> tag) {
+                final TagBitSets<T> bitSets = tagBitSets();
+                return bitSets == null ? asHolder().is(tag) : bitSets.is(tag, this);
+            }
         };
 
         @Override
         public Collection<RegistryObject<T, ? extends T>> getEntries() {
-            return entriesView;
+            return entries.view();
+        }
+
+        @Override
+        @Nullable
+        public RegistryObject<T, ? extends T> getEntry(ResourceLocation id) {
+            return entries.get(id);
+        }
+
+        @Override
+        @Nullable
+        public RegistryObject<T, ? extends T> findEntry(T value) {
+            return entries.find(value);
+        }
+
+        @Override
+        public void addListener(Consumer<? super RegistryObject<T, ? extends T>> listener) {
+            entries.addListener(listener);
+        }
+
+        @Override
+        public void addBatchListener(Consumer<? super List<RegistryObject<T, ? extends T>>> listener) {
+            entries.addBatchListener(listener);
         }
 
         @Override
@@ -238,7 +352,7 @@ public class FabricRegistrationFactory implements RegistrationProvider.Factory {
         }
 
         private final class Builder implements RegistryBuilder<T> {
-            private final Map<RegistryFeatureType<?>, Object> features = new HashMap<>();
+            private final $FeatureSet features = new $FeatureSet();
             private Supplier<T> defaultValueSupplier;
 
             @Override
@@ -262,33 +376,62 @@ public class FabricRegistrationFactory implements RegistrationProvider.Factory {
             public Supplier<Registry<T>> build() {
                 final FabricRegistryBuilder<T, MappedRegistry<T>> builder = FabricRegistryBuilder.from(makeRegistry());
 
-                if (features.containsKey(RegistryFeatureType.SYNCED)) {
+                if (features.has(RegistryFeatureType.SYNCED)) {
                     builder.attribute(RegistryAttribute.SYNCED);
                 }
 
-                final Supplier<Registry<T>> sup = Suppliers.ofInstance(builder.buildAndRegister());
+                final MappedRegistry<T> registry = builder.buildAndRegister();
+                if (features.has(RegistryFeatureType.TAG_BITSETS)) {
+                    TagBitSets.create(registryKey, () -> registry);
+                }
+
+                final Supplier<Registry<T>> sup = Suppliers.ofInstance(registry);
                 if (defaultValueSupplier != null) {
-                    Registry.register(sup.get(), (ResourceLocation) features.get(RegistryFeatureType.DEFAULTED), defaultValueSupplier.get());
+                    Registry.register(sup.get(), features.get(RegistryFeatureType.DEFAULTED), defaultValueSupplier.get());
                 }
                 return sup;
             }
 
             public MappedRegistry<T> makeRegistry() {
-                if (features.containsKey(RegistryFeatureType.DEFAULTED)) {
-                    return new DefaultedMappedRegistry<>(
-                            ((ResourceLocation) features.get(RegistryFeatureType.DEFAULTED)).toString(),
+                final MappedRegistry<T> registry;
+                if (features.has(RegistryFeatureType.DEFAULTED)) {
+                    registry = new DefaultedMappedRegistry<>(
+                            features.get(RegistryFeatureType.DEFAULTED).toString(),
                             registryKey,
                             Lifecycle.stable(),
                             false
                     );
+                } else {
+                    registry = new MappedRegistry<>(
+                            registryKey, Lifecycle.stable(), false
+                    );
+                }
+                final int expectedSize = $WarmStart.expectedSize(registryKey);
+                if (expectedSize > 0) {
+                    presize(registry, expectedSize);
                 }
-                return new MappedRegistry<>(
-                        registryKey, Lifecycle.stable(), false
-                );
+                return registry;
             }
         }
     }
 
+    /**
+     * Replaces the backing collections of an empty registry with ones sized for the given amount of entries.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void presize(MappedRegistry<T> registry, int expectedSize) {
+        final MappedRegistryAccessor<T> accessor = (MappedRegistryAccessor<T>) registry;
+        final int capacity = (int) (expectedSize / 0.75f) + 1;
+        accessor.regutils$setById(new ObjectArrayList<>(Math.max(expectedSize, 256)));
+        final Reference2IntOpenHashMap<T> toId = new Reference2IntOpenHashMap<>(expectedSize);
+        toId.defaultReturnValue(-1);
+        accessor.regutils$setToId(toId);
+        accessor.regutils$setByLocation(new HashMap<>(capacity));
+        accessor.regutils$setByKey(new HashMap<>(capacity));
+        accessor.regutils$setByValue(new IdentityHashMap<>(expectedSize));
+        accessor.regutils$setLifecycles(new IdentityHashMap<>(expectedSize));
+    }
+
     @ApiStatus.Internal
     interface InternalFabricHelper<T> {
         <I extends T> RegistryObject<T, I> create(ResourceLocation name, I object);
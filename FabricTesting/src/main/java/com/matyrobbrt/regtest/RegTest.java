@@ -49,6 +49,9 @@ public class RegTest implements ModInitializer {
 
     @Override
     public void onInitialize() {
+        TestItemsRegistrations.init();
+        System.out.println("Generated item: " + TestItemsRegistrations.GENERATED_ITEM.getId() + ", entries: " + TestItemsRegistrations.ENTRY_NAMES);
+
         MY_OBJECT_REGISTRY.get().holders().forEach(holder -> System.out.println("Key: " + holder.key().location() + ", value: " + holder.value()));
 
         UseItemCallback.EVENT.register((player, world, hand) -> {
@@ -64,7 +67,8 @@ public class RegTest implements ModInitializer {
         final var items = ItemRegistrationProvider.get("testmod");
         final var myBi = items.registerBlockItem(abcBlock, new Item.Properties()
                 .rarity(Rarity.EPIC));
+        final var tabStacks = items.creativeTabStacks();
         ItemGroupEvents.modifyEntriesEvent(CreativeModeTabs.INGREDIENTS)
-                .register(entries -> entries.accept(myBi));
+                .register(entries -> entries.acceptAll(tabStacks.get(entries.getEnabledFeatures())));
     }
 }
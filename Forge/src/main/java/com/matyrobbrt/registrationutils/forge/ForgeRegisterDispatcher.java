@@ -0,0 +1,91 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.forge;
+
+import com.matyrobbrt.registrationutils.util.$RegisterDispatcher;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceKey;
+import net.minecraftforge.eventbus.api.BusBuilder;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.NewRegistryEvent;
+import net.minecraftforge.registries.RegisterEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link $RegisterDispatcher} of a mod bus. Each {@link DeferredRegister} is registered to the private bus of its registry key.
+ */
+final class ForgeRegisterDispatcher extends $RegisterDispatcher<IEventBus, RegisterEvent, NewRegistryEvent> {
+    private static final Map<IEventBus, ForgeRegisterDispatcher> DISPATCHERS = new ConcurrentHashMap<>();
+
+    private ForgeRegisterDispatcher() {
+    }
+
+    /**
+     * Gets the dispatcher of the given mod bus, attaching it to the bus if this is the first time it is requested.
+     *
+     * @param modBus the mod bus
+     * @return the dispatcher of the bus
+     */
+    static ForgeRegisterDispatcher get(IEventBus modBus) {
+        return DISPATCHERS.computeIfAbsent(modBus, bus -> {
+            final ForgeRegisterDispatcher dispatcher = new ForgeRegisterDispatcher();
+            bus.addListener((RegisterEvent event) -> dispatcher.onRegister(event));
+            bus.addListener((NewRegistryEvent event) -> dispatcher.onNewRegistry(event));
+            return dispatcher;
+        });
+    }
+
+    /**
+     * Routes the {@link RegisterEvent}s of the register's registry to it.
+     *
+     * @param register          the register
+     * @param afterRegistration an action to run after the register has received the event
+     */
+    void register(DeferredRegister<?> register, Runnable afterRegistration) {
+        register.register(route(register.getRegistryKey(), afterRegistration));
+    }
+
+    @Override
+    protected IEventBus createBus() {
+        return BusBuilder.builder().build();
+    }
+
+    @Override
+    protected void post(IEventBus bus, RegisterEvent event) {
+        bus.post(event);
+    }
+
+    @Override
+    protected ResourceKey<? extends Registry<?>> registryKey(RegisterEvent event) {
+        return event.getRegistryKey();
+    }
+}
@@ -34,40 +34,56 @@ import com.matyrobbrt.registrationutils.RegistrationProvider;
 import com.matyrobbrt.registrationutils.RegistryObject;
 import com.matyrobbrt.registrationutils.registries.RegistryBuilder;
 import com.matyrobbrt.registrationutils.registries.RegistryFeatureType;
+import com.matyrobbrt.registrationutils.registries.TagBitSets;
+import com.matyrobbrt.registrationutils.util.$FeatureSet;
+import com.matyrobbrt.registrationutils.util.$RawIdCache;
 import net.minecraft.core.Holder;
 import net.minecraft.core.Registry;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TagsUpdatedEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.loading.FMLEnvironment;
 import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.IdMappingEvent;
 import net.minecraftforge.registries.NewRegistryEvent;
 import org.jetbrains.annotations.ApiStatus;
 
 import javax.annotation.Nonnull;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
 
 @AutoService(RegistrationProvider.Factory.class)
 public class ForgeRegistrationFactory implements RegistrationProvider.Factory {
 
+    public ForgeRegistrationFactory() {
+        // Cached raw IDs of registry objects become stale when IDs are remapped
+        MinecraftForge.EVENT_BUS.addListener((IdMappingEvent event) -> $RawIdCache.invalidate());
+        MinecraftForge.EVENT_BUS.addListener((TagsUpdatedEvent event) -> TagBitSets.rebuildAll());
+    }
+
     @Override
     public <T> RegistrationProvider<T> create(ResourceKey<? extends Registry<T>> resourceKey, String modId) {
         final var register = DeferredRegister.create(resourceKey, modId);
         final Provider<T> provider = new Provider<>(modId, register);
 
-        final IEventBus bus = getBus(modId);
-        register.register(bus);
-        bus.addListener(provider::onNewRegistry);
+        final ForgeRegisterDispatcher dispatcher = ForgeRegisterDispatcher.get(getBus(modId));
+        dispatcher.register(register, () -> {});
+        dispatcher.addRegistryCreator(provider::onNewRegistry);
 
         return provider;
     }
 
+    @Override
+    public boolean isDedicatedServer() {
+        return FMLEnvironment.dist.isDedicatedServer();
+    }
+
     @Nonnull
     @ApiStatus.Internal
     static IEventBus getBus(String modId) {
@@ -129,6 +145,7 @@ public class ForgeRegistrationFactory implements RegistrationProvider.Factory {
         public <I extends T> RegistryObject<I> register(String name, Supplier<? extends I> supplier) {
             final var obj = registry.<I>register(name, supplier);
             final var ro = new RegistryObject<I>() {
+                private volatile long rawId = $RawIdCache.EMPTY;
 
                 @Override
                 public ResourceKey<I> getResourceKey() {
@@ -149,6 +166,18 @@ public class ForgeRegistrationFactory implements RegistrationProvider.Factory {
                 public Holder<I> asHolder() {
                     return obj.getHolder().orElseThrow();
                 }
+
+                @Override
+                public int getRawId() {
+                    final long cached = rawId;
+                    if ($RawIdCache.isValid(cached)) {
+                        return (int) cached;
+                    }
+                    final int epoch = $RawIdCache.epoch();
+                    final int id = getRegistry().getId(obj.get());
+                    rawId = $RawIdCache.pack(epoch, id);
+                    return id;
+                }
             };
             entries.add((RegistryObject<T>) ro);
             return ro;
@@ -166,7 +195,7 @@ public class ForgeRegistrationFactory implements RegistrationProvider.Factory {
 
         private final class Builder implements RegistryBuilder<T> {
             private final net.minecraftforge.registries.RegistryBuilder<T> builder = new net.minecraftforge.registries.RegistryBuilder<>();
-            private final Map<RegistryFeatureType<?>, Object> features = new HashMap<>();
+            private final $FeatureSet features = new $FeatureSet();
 
             public Builder() {
                 builder.hasTags(); // We need a wrapper
@@ -197,18 +226,21 @@ public class ForgeRegistrationFactory implements RegistrationProvider.Factory {
             }
 
             private void configureBuilder() {
-                if (!features.containsKey(RegistryFeatureType.SYNCED)) {
+                if (!features.has(RegistryFeatureType.SYNCED)) {
                     builder.disableSync();
                 }
-                if (!features.containsKey(RegistryFeatureType.SAVED_TO_DISK)) {
+                if (!features.has(RegistryFeatureType.SAVED_TO_DISK)) {
                     builder.disableSaving();
                 }
-                if (!features.containsKey(RegistryFeatureType.SUPPORTS_OVERRIDES)) {
+                if (!features.has(RegistryFeatureType.SUPPORTS_OVERRIDES)) {
                     builder.disableOverrides();
                 }
 
-                if (features.containsKey(RegistryFeatureType.DEFAULTED)) {
-                    builder.setDefaultKey((ResourceLocation) features.get(RegistryFeatureType.DEFAULTED));
+                if (features.has(RegistryFeatureType.DEFAULTED)) {
+                    builder.setDefaultKey(features.get(RegistryFeatureType.DEFAULTED));
+                }
+                if (features.has(RegistryFeatureType.TAG_BITSETS)) {
+                    TagBitSets.create(getRegistryKey(), registryInstance);
                 }
             }
         }
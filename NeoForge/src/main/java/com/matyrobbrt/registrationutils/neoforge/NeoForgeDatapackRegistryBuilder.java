@@ -31,6 +31,8 @@ package com.matyrobbrt.registrationutils.neoforge;
 import com.google.auto.service.AutoService;
 import com.matyrobbrt.registrationutils.registries.DatapackRegistry;
 import com.matyrobbrt.registrationutils.registries.DatapackRegistryBuilder;
+import com.matyrobbrt.registrationutils.util.$RegistryAccessCache;
+import com.matyrobbrt.registrationutils.util.$SharedBootstrapLookup;
 import com.matyrobbrt.registrationutils.util.DatapackRegistryGenerator;
 import com.mojang.serialization.Codec;
 import net.minecraft.core.HolderLookup;
@@ -45,6 +47,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
@@ -82,7 +85,9 @@ public class NeoForgeDatapackRegistryBuilder<T> implements DatapackRegistryBuild
         final IEventBus bus = NeoForgeRegistrationFactory.getBus(key.location().getNamespace());
         bus.addListener((final DataPackRegistryEvent.NewRegistry event) -> event.dataPackRegistry(key, Objects.requireNonNull(elementCodec, "element codec must not be null"), networkCodec));
 
-        return new DatapackRegistry<>() {
+        final DatapackRegistry<T> registry = new DatapackRegistry<>() {
+            private final $RegistryAccessCache<T> cache = new $RegistryAccessCache<>(key);
+
             @Override
             public ResourceKey<Registry<T>> key() {
                 return key;
@@ -90,7 +95,7 @@ public class NeoForgeDatapackRegistryBuilder<T> implements DatapackRegistryBuild
 
             @Override
             public DataProvider.Factory<DataProvider> bootstrapDataGenerator(CompletableFuture<HolderLookup.Provider> lookupProvider) {
-                return out -> new DatapackRegistryGenerator(out, lookupProvider, registryData -> registryData.key() == key());
+                return out -> new DatapackRegistryGenerator(out, lookupProvider, List.of(this));
             }
 
             @Override
@@ -100,9 +105,11 @@ public class NeoForgeDatapackRegistryBuilder<T> implements DatapackRegistryBuild
 
             @Override
             public Registry<T> get(RegistryAccess registryAccess) {
-                return registryAccess.registryOrThrow(key);
+                return cache.get(registryAccess);
             }
         };
+        $SharedBootstrapLookup.register(registry);
+        return registry;
     }
 
     @AutoService($Factory.class)
@@ -34,47 +34,72 @@ import com.matyrobbrt.registrationutils.RegistrationProvider;
 import com.matyrobbrt.registrationutils.RegistryObject;
 import com.matyrobbrt.registrationutils.registries.RegistryBuilder;
 import com.matyrobbrt.registrationutils.registries.RegistryFeatureType;
+import com.matyrobbrt.registrationutils.registries.TagBitSets;
 import com.matyrobbrt.registrationutils.specialised.BlockRegistrationProvider;
 import com.matyrobbrt.registrationutils.specialised.BlockRegistryObject;
 import com.matyrobbrt.registrationutils.specialised.ItemRegistrationProvider;
 import com.matyrobbrt.registrationutils.specialised.ItemRegistryObject;
+import com.matyrobbrt.registrationutils.util.$FeatureSet;
+import com.matyrobbrt.registrationutils.util.$ProviderEntries;
+import com.matyrobbrt.registrationutils.util.$RawIdCache;
+import com.matyrobbrt.registrationutils.util.$WarmStart;
 import net.minecraft.core.Holder;
 import net.minecraft.core.Registry;
 import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.level.block.Block;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.ModList;
+import net.neoforged.fml.loading.FMLEnvironment;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+import net.neoforged.neoforge.event.server.ServerAboutToStartEvent;
 import net.neoforged.neoforge.registries.DeferredHolder;
 import net.neoforged.neoforge.registries.DeferredRegister;
+import net.neoforged.neoforge.registries.IdMappingEvent;
 import net.neoforged.neoforge.registries.NewRegistryEvent;
 import org.jetbrains.annotations.ApiStatus;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 @AutoService(RegistrationProvider.Factory.class)
 public class NeoForgeRegistrationFactory implements RegistrationProvider.Factory {
 
+    public NeoForgeRegistrationFactory() {
+        $WarmStart.init(FMLPaths.GAMEDIR.get().resolve(".cache"));
+        // Cached raw IDs of registry objects become stale when IDs are remapped
+        NeoForge.EVENT_BUS.addListener((IdMappingEvent event) -> $RawIdCache.invalidate());
+        NeoForge.EVENT_BUS.addListener((TagsUpdatedEvent event) -> TagBitSets.rebuildAll());
+        NeoForge.EVENT_BUS.addListener((ServerAboutToStartEvent event) -> $ProviderEntries.freezeAll());
+    }
+
     @Override
     public <T> RegistrationProvider<T> create(ResourceKey<? extends Registry<T>> resourceKey, String modId) {
-        final var register = DeferredRegister.create(resourceKey, modId);
-        final Provider<T> provider = new Provider<>(modId, register);
+        final Provider<T> provider = new Provider<>(modId, resourceKey);
 
-        final IEventBus bus = getBus(modId);
-        register.register(bus);
-        bus.addListener(provider::onNewRegistry);
+        final NeoForgeRegisterDispatcher dispatcher = attach(modId, provider);
+        dispatcher.addRegistryCreator(provider::onNewRegistry);
 
         return provider;
     }
 
+    private static NeoForgeRegisterDispatcher attach(String modId, Provider<?> provider) {
+        final NeoForgeRegisterDispatcher dispatcher = NeoForgeRegisterDispatcher.get(getBus(modId));
+        // Entries are bound once the register has received the event, so freeze them right after
+        dispatcher.register(provider.registry, provider.entries::freeze);
+        return dispatcher;
+    }
+
     @Nonnull
     @ApiStatus.Internal
     static IEventBus getBus(String modId) {
@@ -92,31 +117,45 @@ public class NeoForgeRegistrationFactory implements RegistrationProvider.Factory
 
     @Override
     public ItemRegistrationProvider item(String modId) {
-        return new ItemProvider(modId);
+        final ItemProvider provider = new ItemProvider(modId);
+        attach(modId, provider);
+        return provider;
     }
 
     @Override
     public BlockRegistrationProvider block(String modId) {
-        return new BlockProvider(modId);
+        final BlockProvider provider = new BlockProvider(modId);
+        attach(modId, provider);
+        return provider;
+    }
+
+    @Override
+    public boolean isDedicatedServer() {
+        return FMLEnvironment.dist.isDedicatedServer();
     }
 
     private static class ItemProvider extends Provider<Item> implements ItemRegistrationProvider {
 
         private ItemProvider(String modId) {
-            super(modId, DeferredRegister.create(BuiltInRegistries.ITEM, modId));
+            super(modId, Registries.ITEM);
+        }
+
+        @Override
+        protected <I extends Item> ItemRO<I> createObject(ResourceKey<Item> key) {
+            return new ItemRO<>(key);
         }
 
         @Override
         public <I extends Item> ItemRegistryObject<I> register(String name, Supplier<? extends I> supplier) {
-            final var obj = new ItemRO<I>(registry.register(name, supplier));
+            final ItemRO<I> obj = (ItemRO<I>) this.<I>registerHolder(name, supplier);
             entries.add(obj);
             return obj;
         }
 
         private class ItemRO<I extends Item> extends RO<I> implements ItemRegistryObject<I> {
 
-            protected ItemRO(DeferredHolder<Item, I> holder) {
-                super(holder);
+            protected ItemRO(ResourceKey<Item> key) {
+                super(key);
             }
         }
     }
@@ -124,20 +163,25 @@ public class NeoForgeRegistrationFactory implements RegistrationProvider.Factory
     private static class BlockProvider extends Provider<Block> implements BlockRegistrationProvider {
 
         private BlockProvider(String modId) {
-            super(modId, DeferredRegister.create(BuiltInRegistries.BLOCK, modId));
+            super(modId, Registries.BLOCK);
+        }
+
+        @Override
+        protected <B extends Block> BlockRO<B> createObject(ResourceKey<Block> key) {
+            return new BlockRO<>(key);
         }
 
         @Override
         public <B extends Block> BlockRegistryObject<B> register(String name, Supplier<? extends B> supplier) {
-            final var obj = new BlockRO<B>(registry.register(name, supplier));
+            final BlockRO<B> obj = (BlockRO<B>) this.<B>registerHolder(name, supplier);
             entries.add(obj);
             return obj;
         }
 
         private class BlockRO<B extends Block> extends RO<B> implements BlockRegistryObject<B> {
 
-            protected BlockRO(DeferredHolder<Block, B> holder) {
-                super(holder);
+            protected BlockRO(ResourceKey<Block> key) {
+                super(key);
             }
         }
     }
@@ -146,13 +190,31 @@ public class NeoForgeRegistrationFactory implements RegistrationProvider.Factory
         protected final String modId;
         protected final DeferredRegister<T> registry;
         private net.neoforged.neoforge.registries.RegistryBuilder<T> regBuilder;
+        private @Nullable TagBitSets<T> tagBitSets;
+        private int tagBitSetsGeneration = -1;
 
-        protected final Set<RegistryObject<T, ? extends T>> entries = new HashSet<>();
-        private final Set<RegistryObject<T, ? extends T>> entriesView = Collections.unmodifiableSet(entries);
+        protected final $ProviderEntries<T> entries;
 
-        private Provider(String modId, DeferredRegister<T> registry) {
+        private Provider(String modId, ResourceKey<? extends Registry<T>> registryKey) {
             this.modId = modId;
-            this.registry = registry;
+            this.registry = new Register(registryKey, modId);
+            this.entries = new $ProviderEntries<>(false, modId, registryKey);
+        }
+
+        /**
+         * Creates the object the register hands out for the entry with the given {@code key}. <br>
+         * The returned object <i>is</i> the {@link DeferredHolder} of the entry, so that no wrapper
+         * needs to be allocated, and no extra indirection is needed on {@link RegistryObject#get()}.
+         */
+        protected <I extends T> RO<I> createObject(ResourceKey<T> key) {
+            return new RO<>(key);
+        }
+
+        protected <I extends T> DeferredHolder<T, I> registerHolder(String name, Supplier<? extends I> supplier) {
+            // DeferredRegister is not thread-safe, but mods may be constructed in parallel. The register is private to this provider, so this excludes all callers
+            synchronized (registry) {
+                return registry.register(name, supplier);
+            }
         }
 
         private void onNewRegistry(NewRegistryEvent event) {
@@ -184,44 +246,99 @@ public class NeoForgeRegistrationFactory implements RegistrationProvider.Factory
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public <I extends T> RegistryObject<T, I> register(String name, Supplier<? extends I> supplier) {
-            final var obj = registry.<I>register(name, supplier);
-            final var ro = new RO<>(obj);
+            final RO<I> ro = (RO<I>) this.<I>registerHolder(name, supplier);
             entries.add(ro);
             return ro;
         }
 
-        protected class RO<I extends T> implements RegistryObject<T, I> {
-            private final DeferredHolder<T, I> holder;
+        @Nullable
+        private TagBitSets<T> tagBitSets() {
+            TagBitSets<T> bitSets = tagBitSets;
+            if (bitSets == null) {
+                // Most registries do not have bitsets, so their absence is cached until new bitsets are created
+                final int generation = TagBitSets.generation();
+                if (generation != tagBitSetsGeneration) {
+                    tagBitSets = bitSets = TagBitSets.find(getRegistryKey());
+                    tagBitSetsGeneration = generation;
+                }
+            }
+            return bitSets;
+        }
+
+        private final class Register extends DeferredRegister<T> {
+            private Register(ResourceKey<? extends Registry<T>> registryKey, String namespace) {
+                super(registryKey, namespace);
+            }
+
+            @Override
+            protected <I extends T> DeferredHolder<T, I> createHolder(ResourceKey<? extends Registry<T>> registryKey, ResourceLocation key) {
+                return createObject(ResourceKey.create(registryKey, key));
+            }
+        }
+
+        protected class RO<I extends T> extends DeferredHolder<T, I> implements RegistryObject<T, I> {
+            private volatile long rawId = $RawIdCache.EMPTY;
 
-            protected RO(DeferredHolder<T, I> holder) {
-                this.holder = holder;
+            protected RO(ResourceKey<T> key) {
+                super(key);
             }
 
             @Override
             public ResourceKey<T> getResourceKey() {
-                return holder.getKey();
+                return getKey();
             }
 
             @Override
-            public ResourceLocation getId() {
-                return holder.getId();
+            public Holder<T> asHolder() {
+                return this;
             }
 
             @Override
-            public I get() {
-                return holder.get();
+            public int getRawId() {
+                final long cached = rawId;
+                if ($RawIdCache.isValid(cached)) {
+                    return (int) cached;
+                }
+                final int epoch = $RawIdCache.epoch();
+                final int id = getRegistry().getId(get());
+                rawId = $RawIdCache.pack(epoch, id);
+                return id;
             }
 
             @Override
-            public Holder<T> asHolder() {
-                return holder;
+            public boolean is(TagKey<T> tag) {
+                final TagBitSets<T> bitSets = tagBitSets();
+                return bitSets == null ? super.is(tag) : bitSets.is(tag, this);
             }
         };
 
         @Override
-        public Set<RegistryObject<T, ? extends T>> getEntries() {
-            return entriesView;
+        public Collection<RegistryObject<T, ? extends T>> getEntries() {
+            return entries.view();
+        }
+
+        @Override
+        @Nullable
+        public RegistryObject<T, ? extends T> getEntry(ResourceLocation id) {
+            return entries.get(id);
+        }
+
+        @Override
+        @Nullable
+        public RegistryObject<T, ? extends T> findEntry(T value) {
+            return entries.find(value);
+        }
+
+        @Override
+        public void addListener(Consumer<? super RegistryObject<T, ? extends T>> listener) {
+            entries.addListener(listener);
+        }
+
+        @Override
+        public void addBatchListener(Consumer<? super List<RegistryObject<T, ? extends T>>> listener) {
+            entries.addBatchListener(listener);
         }
 
         @Override
@@ -231,7 +348,7 @@ public class NeoForgeRegistrationFactory implements RegistrationProvider.Factory
 
         private final class Builder implements RegistryBuilder<T> {
             private final net.neoforged.neoforge.registries.RegistryBuilder<T> builder = new net.neoforged.neoforge.registries.RegistryBuilder<>(getRegistryKey());
-            private final Map<RegistryFeatureType<?>, Object> features = new HashMap<>();
+            private final $FeatureSet features = new $FeatureSet();
 
             @Override
             public <X> RegistryBuilder<T> withFeature(RegistryFeatureType<X> type, X value) {
@@ -258,9 +375,12 @@ public class NeoForgeRegistrationFactory implements RegistrationProvider.Factory
             }
 
             private void configureBuilder() {
-                builder.sync(features.containsKey(RegistryFeatureType.SYNCED));
-                if (features.containsKey(RegistryFeatureType.DEFAULTED)) {
-                    builder.defaultKey((ResourceLocation) features.get(RegistryFeatureType.DEFAULTED));
+                builder.sync(features.has(RegistryFeatureType.SYNCED));
+                if (features.has(RegistryFeatureType.DEFAULTED)) {
+                    builder.defaultKey(features.get(RegistryFeatureType.DEFAULTED));
+                }
+                if (features.has(RegistryFeatureType.TAG_BITSETS)) {
+                    TagBitSets.create(getRegistryKey(), registryInstance);
                 }
             }
         }
@@ -30,6 +30,8 @@ package com.matyrobbrt.registrationutils.gradle;
 
 import com.google.common.collect.Lists;
 import com.matyrobbrt.registrationutils.gradle.holderreg.HolderScanner;
+import com.matyrobbrt.registrationutils.gradle.holderreg.RegistrationManifestWriter;
+import com.matyrobbrt.registrationutils.gradle.holderreg.RegistryObjectAccessTransformer;
 import com.matyrobbrt.registrationutils.gradle.task.RelocateResourceTask;
 import groovy.json.JsonGenerator;
 import groovy.json.JsonSlurper;
@@ -91,8 +93,9 @@ import java.util.function.Predicate;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarOutputStream;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -103,6 +106,8 @@ public class RegExtension {
     public static final String FORCE_GENERATION_PROPERTY = "regForceGeneration";
     public static final JsonSlurper PARSER = new JsonSlurper();
     public static final JsonGenerator GENERATOR = new JsonGenerator.Options().build();
+    public static final String PROCESSOR_SERVICE = "META-INF/services/javax.annotation.processing.Processor";
+    public static final String INCREMENTAL_PROCESSORS = "META-INF/gradle/incremental.annotation.processors";
 
     private final Project project;
     private final RegistrationUtilsExtension.SubProject config;
@@ -152,6 +157,22 @@ public class RegExtension {
                 }
             }));
         }
+        if (config.type.get() != RegistrationUtilsExtension.SubProject.Type.COMMON && root.getExtensions().getByType(RegistrationUtilsExtension.class).transformsRegistryObjectAccess()) {
+            project.getTasks().named(JavaPlugin.CLASSES_TASK_NAME, t -> t.doLast(new Action<Task>() {
+                @Override
+                public void execute(Task task) {
+                    transformRegistryObjectAccess(project.getBuildDir().toPath().resolve("classes/java/main"));
+                }
+            }));
+        }
+        if (config.type.get() != RegistrationUtilsExtension.SubProject.Type.COMMON && root.getExtensions().getByType(RegistrationUtilsExtension.class).writesRegistrationManifest()) {
+            project.getTasks().named(JavaPlugin.CLASSES_TASK_NAME, t -> t.doLast(new Action<Task>() {
+                @Override
+                public void execute(Task task) {
+                    writeRegistrationManifest(project.getBuildDir().toPath().resolve("classes/java/main"));
+                }
+            }));
+        }
         final ProjectInternal internal = (ProjectInternal) ProjectBuilder.builder()
                 .withName("reg_" + project.getName())
                 .withProjectDir(cachePath.resolve("projects").resolve(project.getName()).toFile())
@@ -207,9 +228,12 @@ public class RegExtension {
                     common();
                     loaderSpecific();
                     try {
+                        final String processorPackage = group.replace('.', '/') + "/processor/";
                         final Predicate<String> pred = f -> {
                             f = f.trim();
-                            return !f.endsWith("MANIFEST.MF") && !f.contains("mod.json");
+                            // The annotation processor is only used at compile time, so it is not shipped
+                            return !f.endsWith("MANIFEST.MF") && !f.contains("mod.json")
+                                    && !f.equals(PROCESSOR_SERVICE) && !f.equals(INCREMENTAL_PROCESSORS) && !f.startsWith(processorPackage);
                         };
                         extractSubDir(getJarPath(RegistrationUtilsExtension.SubProject.Type.COMMON, classifier), extDir, pred);
                         if (config.type.get() != RegistrationUtilsExtension.SubProject.Type.COMMON) {
@@ -426,7 +450,7 @@ public class RegExtension {
                             final String name = entry.getName();
                             final InputStream is = in.getInputStream(entry);
 
-                            final boolean isService = name.startsWith("META-INF/services/");
+                            final boolean isService = name.startsWith("META-INF/services/") || name.equals(INCREMENTAL_PROCESSORS);
                             final boolean isJson = name.endsWith(".json");
                             if (!(isService || isJson) || entry.isDirectory()) {
                                 out.putNextEntry(entry);
@@ -436,19 +460,12 @@ public class RegExtension {
                             }
 
                             if (isService) {
-                                String serviceName = name.substring(18);
-                                final Matcher nameMatcher = groupPattern.matcher(serviceName);
-                                if (!nameMatcher.find()) {
-                                    out.putNextEntry(entry);
-                                    IOUtils.copy(is, out);
-                                    out.closeEntry();
-                                    continue;
-                                }
-                                serviceName = nameMatcher.replaceAll(group);
+                                // The implementations of services of other libraries (such as annotation processors) need to be relocated too
+                                final String newName = groupPattern.matcher(name).replaceAll(group);
                                 String content = RelocateResourceTask.readBytes(is).toString();
                                 content = groupPattern.matcher(content).replaceAll(group);
 
-                                final JarEntry newEntry = new JarEntry("META-INF/services/" + serviceName);
+                                final JarEntry newEntry = new JarEntry(newName);
                                 out.putNextEntry(newEntry);
                                 out.write(content.getBytes(StandardCharsets.UTF_8));
                                 out.closeEntry();
@@ -569,6 +586,41 @@ public class RegExtension {
         }
     }
 
+    private void transformRegistryObjectAccess(Path classesOut) {
+        final RegistryObjectAccessTransformer transformer = new RegistryObjectAccessTransformer(project.getLogger(), group);
+        try {
+            final List<Path> classes;
+            try (final Stream<Path> files = Files.walk(classesOut)) {
+                classes = files.filter(file -> file.toString().endsWith(".class")).collect(Collectors.toList());
+            }
+            for (final Path file : classes) {
+                transformer.scanClass(file);
+            }
+            for (final Path file : classes) {
+                transformer.processClass(file);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void writeRegistrationManifest(Path classesOut) {
+        final RegistrationManifestWriter writer = new RegistrationManifestWriter(project.getLogger(), group);
+        try {
+            final List<Path> classes;
+            try (final Stream<Path> files = Files.walk(classesOut)) {
+                // Sort the classes so that the registration order is stable between builds
+                classes = files.filter(file -> file.toString().endsWith(".class")).sorted().collect(Collectors.toList());
+            }
+            for (final Path file : classes) {
+                writer.processClass(file);
+            }
+            writer.write(classesOut);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @SuppressWarnings("ALL")
     private static void deleteDir(Path path) throws IOException {
         if (!Files.exists(path))
@@ -49,6 +49,8 @@ public class RegistrationUtilsExtension extends GroovyObjectSupport {
     protected final Property<String> group;
     protected final Property<String> extensionName;
     protected final Property<Boolean> transformHolderLoading;
+    protected final Property<Boolean> transformRegistryObjectAccess;
+    protected final Property<Boolean> writeRegistrationManifest;
 
     @Inject
     public RegistrationUtilsExtension(final Project project) {
@@ -57,6 +59,8 @@ public class RegistrationUtilsExtension extends GroovyObjectSupport {
         this.group = project.getObjects().property(String.class).convention(project.getGroup().toString());
         this.extensionName = project.getObjects().property(String.class).convention(RegExtension.NAME);
         this.transformHolderLoading = project.getObjects().property(Boolean.class).convention(false);
+        this.transformRegistryObjectAccess = project.getObjects().property(Boolean.class).convention(false);
+        this.writeRegistrationManifest = project.getObjects().property(Boolean.class).convention(false);
     }
 
     public NamedDomainObjectContainer<SubProject> projects(@SuppressWarnings("rawtypes") Closure closure) {
@@ -83,6 +87,22 @@ public class RegistrationUtilsExtension extends GroovyObjectSupport {
         transformHolderLoading(true);
     }
 
+    public void transformRegistryObjectAccess(boolean transformRegistryObjectAccess) {
+        this.transformRegistryObjectAccess.set(transformRegistryObjectAccess);
+    }
+
+    public void transformRegistryObjectAccess() {
+        transformRegistryObjectAccess(true);
+    }
+
+    public void writeRegistrationManifest(boolean writeRegistrationManifest) {
+        this.writeRegistrationManifest.set(writeRegistrationManifest);
+    }
+
+    public void writeRegistrationManifest() {
+        writeRegistrationManifest(true);
+    }
+
     public boolean addsDependencies() {
         return addDependencies;
     }
@@ -91,6 +111,14 @@ public class RegistrationUtilsExtension extends GroovyObjectSupport {
         return transformHolderLoading.get();
     }
 
+    public boolean transformsRegistryObjectAccess() {
+        return transformRegistryObjectAccess.get();
+    }
+
+    public boolean writesRegistrationManifest() {
+        return writeRegistrationManifest.get();
+    }
+
     public void group(String group) {
         this.group.set(group);
     }
@@ -31,6 +31,7 @@ package com.matyrobbrt.registrationutils.gradle;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.plugins.JavaPlugin;
 
 public class RegistrationUtilsPlugin implements Plugin<Project> {
@@ -54,7 +55,8 @@ public class RegistrationUtilsPlugin implements Plugin<Project> {
                 final RegExtension reg = proj.getExtensions().create(ext.extensionName.get(), RegExtension.class, project, proj, ext, sub);
                 if (ext.addsDependencies()) {
                     final Configuration regUtilsConfig = proj.getConfigurations().maybeCreate(CONFIGURATION_NAME);
-                    regUtilsConfig.getDependencies().add(reg.common());
+                    final Dependency common = reg.common();
+                    regUtilsConfig.getDependencies().add(common);
 
                     final Configuration compConfig = proj.getConfigurations().findByName(JavaPlugin.COMPILE_ONLY_CONFIGURATION_NAME);
                     if (compConfig != null) {
@@ -66,6 +68,13 @@ public class RegistrationUtilsPlugin implements Plugin<Project> {
                         testCompConfig.extendsFrom(regUtilsConfig);
                     }
 
+                    // Gradle does not discover annotation processors on the compile classpath, so the registration processor, which ships in the common jar, has to be added explicitly.
+                    // Its classes only depend on the JDK, so the Minecraft classes referenced by the rest of the jar are never loaded on the processor path
+                    final Configuration processorConfig = proj.getConfigurations().findByName(JavaPlugin.ANNOTATION_PROCESSOR_CONFIGURATION_NAME);
+                    if (processorConfig != null) {
+                        processorConfig.getDependencies().add(common);
+                    }
+
                     if (sub.type.get() != RegistrationUtilsExtension.SubProject.Type.COMMON) {
                         final Configuration runtimeClasspathConfig = proj.getConfigurations().findByName(JavaPlugin.RUNTIME_CLASSPATH_CONFIGURATION_NAME);
                         if (runtimeClasspathConfig != null) {
@@ -0,0 +1,143 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.gradle.holderreg;
+
+import com.matyrobbrt.registrationutils.util.$RegistrationNames;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AnnotationNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the {@code @Register}-annotated factory methods of {@code @RegisterTo}-annotated classes into a registration manifest,
+ * from which {@code RegistrationManifest} registers the objects at runtime without initialising the classes declaring them. <br>
+ * Since the generated holders would then register nothing, the manifest listing them is removed so that they are no longer initialised eagerly.
+ * Two factories registering the same name to the same registry and mod fail the build.
+ */
+public class RegistrationManifestWriter {
+    private final List<String> entries = new ArrayList<>();
+    private final Map<String, String> factories = new HashMap<>();
+    private final String registerTo;
+    private final String register;
+    private final String pkg;
+    private final Logger logger;
+
+    public RegistrationManifestWriter(Logger logger, String pkg) {
+        this.logger = logger;
+        this.pkg = pkg;
+        final String internalPkg = pkg.replace('.', '/');
+        registerTo = Type.getObjectType(internalPkg + "/annotation/RegisterTo").getDescriptor();
+        register = Type.getObjectType(internalPkg + "/annotation/Register").getDescriptor();
+    }
+
+    public void processClass(Path path) throws IOException {
+        final ClassNode clazz = new ClassNode(Opcodes.ASM9);
+        new ClassReader(Files.readAllBytes(path)).accept(clazz, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        final AnnotationNode target = find(clazz.invisibleAnnotations, registerTo);
+        if (target == null) return;
+
+        final String modId = (String) value(target, "modId", null);
+        String registry = (String) value(target, "registry", null);
+        if (registry.indexOf(':') < 0) {
+            registry = "minecraft:" + registry;
+        }
+        for (final MethodNode method : clazz.methods) {
+            final AnnotationNode annotation = find(method.invisibleAnnotations, register);
+            if (annotation == null) continue;
+            if ((method.access & Opcodes.ACC_STATIC) == 0 || !method.desc.startsWith("()L")) {
+                logger.warn("Skipping invalid registration factory {}#{}", clazz.name, method.name);
+                continue;
+            }
+            String name = (String) value(annotation, "value", "");
+            if (name.isEmpty()) {
+                name = $RegistrationNames.toSnakeCase(method.name);
+            }
+            final String factory = clazz.name.replace('/', '.') + ' ' + method.name;
+            final String previous = factories.putIfAbsent(registry + ' ' + modId + ' ' + name, factory);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate registration of " + modId + ':' + name + " in registry " + registry + " by factories "
+                        + previous.replace(' ', '#') + " and " + factory.replace(' ', '#'));
+            }
+            entries.add(registry + ' ' + modId + ' ' + name + ' ' + factory);
+            logger.trace("Adding {}#{} to the registration manifest as {}", clazz.name, method.name, name);
+        }
+    }
+
+    /**
+     * Writes the manifest to the package of the library in the given classes directory.
+     *
+     * @param classesOut the classes directory
+     */
+    public void write(Path classesOut) throws IOException {
+        final Path manifest = classesOut.resolve(pkg.replace('.', '/')).resolve($RegistrationNames.REGISTRATION_MANIFEST);
+        Files.deleteIfExists(manifest);
+        Files.deleteIfExists(classesOut.resolve($RegistrationNames.generatedHoldersManifest(pkg)));
+        if (entries.isEmpty()) return;
+        Files.createDirectories(manifest.getParent());
+        Files.write(manifest, entries);
+    }
+
+    @Nullable
+    private static AnnotationNode find(@Nullable List<AnnotationNode> annotations, String desc) {
+        if (annotations == null) return null;
+        for (final AnnotationNode annotation : annotations) {
+            if (annotation.desc.equals(desc)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static Object value(AnnotationNode annotation, String name, @Nullable Object defaultValue) {
+        if (annotation.values != null) {
+            // Values are stored as a flat list of alternating names and values
+            for (int i = 0; i < annotation.values.size(); i += 2) {
+                if (annotation.values.get(i).equals(name)) {
+                    return annotation.values.get(i + 1);
+                }
+            }
+        }
+        if (defaultValue == null) {
+            throw new IllegalArgumentException("Annotation " + annotation.desc + " is missing value " + name);
+        }
+        return defaultValue;
+    }
+}
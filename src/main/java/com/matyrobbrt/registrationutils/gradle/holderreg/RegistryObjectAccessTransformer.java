@@ -0,0 +1,134 @@
+/*
+ * This file and all files in subdirectories of the file's parent are provided by the
+ * RegistrationUtils Gradle plugin, and are licensed under the MIT license.
+ * More info at https://github.com/Matyrobbrt/RegistrationUtils.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2022 Matyrobbrt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.matyrobbrt.registrationutils.gradle.holderreg;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Rewrites reads of {@code static final} registry object fields immediately followed by a {@code get()} call
+ * into {@code invokedynamic} call sites bootstrapped by {@code util.$RegistryObjectConstants}, which become constant once the object is bound. <br>
+ * Transformation is done in two passes: {@link #scanClass(Path)} must be called on all classes before {@link #processClass(Path)} is called on any of them.
+ */
+public class RegistryObjectAccessTransformer {
+    private final Set<String> registryObjectTypes = new HashSet<>();
+    private final Set<String> constantFields = new HashSet<>();
+    private final Handle bootstrap;
+    private final Logger logger;
+
+    public RegistryObjectAccessTransformer(Logger logger, String pkg) {
+        this.logger = logger;
+        pkg = pkg.replace('.', '/');
+        registryObjectTypes.add(pkg + "/RegistryObject");
+        registryObjectTypes.add(pkg + "/specialised/ItemRegistryObject");
+        registryObjectTypes.add(pkg + "/specialised/BlockRegistryObject");
+        bootstrap = new Handle(H_INVOKESTATIC, pkg + "/util/$RegistryObjectConstants", "bootstrap", MethodType.methodType(
+                CallSite.class, MethodHandles.Lookup.class, String.class, MethodType.class, MethodHandle.class
+        ).toMethodDescriptorString(), false);
+    }
+
+    public void scanClass(Path path) throws IOException {
+        final ClassNode clazz = new ClassNode(Opcodes.ASM9);
+        new ClassReader(Files.readAllBytes(path)).accept(clazz, ClassReader.SKIP_CODE);
+        for (final FieldNode node : clazz.fields) {
+            if ((node.access & (ACC_STATIC | ACC_FINAL)) == (ACC_STATIC | ACC_FINAL) && isRegistryObject(node.desc)) {
+                constantFields.add(fieldKey(clazz.name, node.name, node.desc));
+            }
+        }
+    }
+
+    public boolean processClass(Path path) throws IOException {
+        if (constantFields.isEmpty()) return false;
+
+        final ClassNode clazz = new ClassNode(Opcodes.ASM9);
+        new ClassReader(Files.readAllBytes(path)).accept(clazz, 0);
+        int rewritten = 0;
+        for (final MethodNode method : clazz.methods) {
+            if (method.instructions == null) continue;
+            for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                if (insn.getOpcode() != GETSTATIC || !(insn.getNext() instanceof MethodInsnNode)) continue;
+                final FieldInsnNode field = (FieldInsnNode) insn;
+                final MethodInsnNode call = (MethodInsnNode) insn.getNext();
+                if (!constantFields.contains(fieldKey(field.owner, field.name, field.desc)) || !isGetCall(call)) continue;
+
+                // Only rewrite the pair when the call immediately follows the read, so that no jump can land in between
+                final InvokeDynamicInsnNode indy = new InvokeDynamicInsnNode("get", "()" + Type.getReturnType(call.desc).getDescriptor(),
+                        bootstrap, new Handle(H_GETSTATIC, field.owner, field.name, field.desc, false));
+                method.instructions.remove(call);
+                method.instructions.set(field, indy);
+                insn = indy;
+                rewritten++;
+            }
+        }
+        if (rewritten > 0) {
+            // The rewrite only lowers the stack height, so the existing frames and maxs stay valid
+            final ClassWriter cw = new ClassWriter(0);
+            clazz.accept(cw);
+            Files.write(path, cw.toByteArray());
+            logger.trace("Transforming class {}: rewrote {} registry object accesses to invokedynamic", clazz.name, rewritten);
+        }
+        return rewritten > 0;
+    }
+
+    private boolean isGetCall(MethodInsnNode call) {
+        return call.getOpcode() == INVOKEINTERFACE && call.name.equals("get") && call.desc.startsWith("()")
+                && registryObjectTypes.contains(call.owner) && !call.desc.equals("()V");
+    }
+
+    private boolean isRegistryObject(String desc) {
+        return desc.length() > 2 && desc.charAt(0) == 'L' && registryObjectTypes.contains(desc.substring(1, desc.length() - 1));
+    }
+
+    private static String fieldKey(String owner, String name, String desc) {
+        return owner + '.' + name + ':' + desc;
+    }
+}